@@ -0,0 +1,135 @@
+package battleship;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * BackgroundAI runs a TargetingStrategy on its own thread so the GUI
+ * thread never waits for the computer to think.
+ *
+ * - requestMove() asks the strategy for a shot in the background and
+ *   hands the answer back on the callback executor (for the GUI this
+ *   is Platform::runLater)
+ * - if the strategy takes longer than the time budget, it is
+ *   interrupted and a fallback shot is used instead. The strategies
+ *   check the interrupt flag in their long loops (see
+ *   TargetingStrategy.nextShot), so an abandoned move stops quickly
+ *   and the next call doesn't wait behind it
+ * - cancel() drops any move still being computed, and shutdown()
+ *   stops the thread when the game closes
+ *
+ * Every call into the strategy (nextShot and recordShot) runs on the
+ * same single thread, one at a time, so strategies don't need to be
+ * thread safe. The thread is a virtual thread: it costs almost nothing
+ * while the AI is idle.
+ */
+public class BackgroundAI {
+
+	// The strategy that picks the computer's shots
+	private TargetingStrategy strategy;
+
+	// Runs every strategy call, one at a time
+	private ExecutorService aiThread;
+
+	// Where results are delivered (the GUI thread)
+	private Executor callbackExecutor;
+
+	// Longest time a move may take before the fallback is used
+	private long budgetMillis;
+
+	// Bumped on cancel() so answers to old requests are ignored
+	private volatile int generation;
+
+	// The move being computed, so it can be interrupted
+	private Future<?> running;
+
+	/**
+	 * Constructs a background runner for a strategy.
+	 *
+	 * @param strategy the strategy to run
+	 * @param budgetMillis time budget per move in milliseconds
+	 * @param callbackExecutor runs the callbacks (ex: Platform::runLater)
+	 */
+	public BackgroundAI(TargetingStrategy strategy, long budgetMillis, Executor callbackExecutor) {
+		this.strategy = strategy;
+		this.budgetMillis = budgetMillis;
+		this.callbackExecutor = callbackExecutor;
+		this.aiThread = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("computer-ai").factory());
+	}
+
+	/**
+	 * Starts computing the next shot in the background.
+	 *
+	 * onMove is called on the callback executor with the strategy's
+	 * shot, or with the fallback's shot if the strategy ran out of
+	 * time or failed. It is not called if cancel() happens first.
+	 *
+	 * @param fallback picks a packed shot when the strategy can't (called on the callback executor)
+	 * @param onMove receives the packed shot to fire
+	 */
+	public void requestMove(IntSupplier fallback, IntConsumer onMove) {
+		int request = generation;
+		CompletableFuture<Integer> result = new CompletableFuture<>();
+
+		Future<?> task = aiThread.submit(() -> {
+			try {
+				long start = System.nanoTime();
+				int target = strategy.nextShot();
+				GameMetrics.get().recordAiMove(System.nanoTime() - start);
+				result.complete(target);
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+			}
+		});
+		running = task;
+
+		result.orTimeout(budgetMillis, TimeUnit.MILLISECONDS).whenComplete((target, error) -> {
+			if (error != null) {
+				// Out of time (or failed): stop thinking and use the fallback
+				task.cancel(true);
+			}
+			callbackExecutor.execute(() -> {
+				if (request == generation) {
+					onMove.accept(target != null ? target : fallback.getAsInt());
+				}
+			});
+		});
+	}
+
+	/**
+	 * Tells the strategy the result of a shot. The update runs on the
+	 * AI thread after any move still being computed.
+	 *
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param result result of the shot
+	 * @param sunk the ship that was sunk when result is SUNK, otherwise null
+	 */
+	public void recordShot(int row, int col, ShotResult result, Ship sunk) {
+		aiThread.execute(() -> strategy.recordShot(row, col, result, sunk));
+	}
+
+	/**
+	 * Drops the move being computed, if any. Its callback will not run.
+	 */
+	public void cancel() {
+		generation++;
+		if (running != null) {
+			running.cancel(true);
+		}
+	}
+
+	/**
+	 * Cancels any move and stops the AI thread.
+	 */
+	public void shutdown() {
+		cancel();
+		aiThread.shutdownNow();
+	}
+}
@@ -0,0 +1,255 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * BitGrid stores the state of every square on a Board as bitmasks.
+ *
+ * Squares are numbered row by row (row * size + col) and each state
+ * has its own mask:
+ * - ships: squares covered by a ship
+ * - hits: squares that were shot and hit a ship
+ * - misses: squares that were shot and hit water
+ *
+ * A board up to 8x8 fits in one long per mask. Larger boards use
+ * several 64-bit words, so checks like "is this run of squares free?"
+ * are done one word (64 squares) at a time.
+ *
+ * It also remembers which ship covers each square so the Board can
+ * find the ship that was hit with a single lookup.
+ */
+public class BitGrid implements CellGrid {
+
+	// Size of the board (ex: 8 is 8 x 8)
+	private int size;
+
+	// One bit per square for each state
+	private long[] ships;
+	private long[] hits;
+	private long[] misses;
+
+	// Index (in the Board's ship list) of the ship on each square
+	private int[] shipIds;
+
+	/**
+	 * Constructs an empty grid (all water) of the given size.
+	 *
+	 * @param size the board size
+	 */
+	public BitGrid(int size) {
+		this.size = size;
+		int words = (size * size + 63) >>> 6;
+		ships = new long[words];
+		hits = new long[words];
+		misses = new long[words];
+		shipIds = new int[size * size];
+		Arrays.fill(shipIds, NO_SHIP);
+	}
+
+	/**
+	 * Returns the state of a square using the Board constants
+	 * (EMPTY, SHIP, HIT or MISS).
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return the square's state
+	 */
+	@Override
+	public int get(int row, int col) {
+		int i = row * size + col;
+		long bit = 1L << i;
+		int w = i >>> 6;
+		if ((hits[w] & bit) != 0) {
+			return Board.HIT;
+		}
+		if ((misses[w] & bit) != 0) {
+			return Board.MISS;
+		}
+		if ((ships[w] & bit) != 0) {
+			return Board.SHIP;
+		}
+		return Board.EMPTY;
+	}
+
+	/**
+	 * Returns true if the square is covered by a ship (hit or not).
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return true if a ship sits on this square
+	 */
+	@Override
+	public boolean isShip(int row, int col) {
+		int i = row * size + col;
+		return (ships[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * Returns true if the square has already been shot.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return true if the square is a hit or a miss
+	 */
+	@Override
+	public boolean isTried(int row, int col) {
+		int i = row * size + col;
+		int w = i >>> 6;
+		return ((hits[w] | misses[w]) & (1L << i)) != 0;
+	}
+
+	/**
+	 * Returns the index of the ship on a square.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return the ship's index, or NO_SHIP for water
+	 */
+	@Override
+	public int getShipId(int row, int col) {
+		return shipIds[row * size + col];
+	}
+
+	/**
+	 * Marks a square as covered by the given ship.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @param shipId index of the ship in the Board's ship list
+	 */
+	@Override
+	public void setShip(int row, int col, int shipId) {
+		int i = row * size + col;
+		ships[i >>> 6] |= 1L << i;
+		shipIds[i] = shipId;
+	}
+
+	/**
+	 * Marks a square as hit.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 */
+	@Override
+	public void setHit(int row, int col) {
+		int i = row * size + col;
+		hits[i >>> 6] |= 1L << i;
+	}
+
+	/**
+	 * Marks a square as missed.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 */
+	@Override
+	public void setMiss(int row, int col) {
+		int i = row * size + col;
+		misses[i >>> 6] |= 1L << i;
+	}
+
+	/**
+	 * Checks whether a straight run of squares is free (not a ship,
+	 * hit or miss). The run must already be inside the board.
+	 *
+	 * A horizontal run is a block of neighbouring bits, so it is
+	 * checked with one mask per word. A vertical run is spread out
+	 * by the row width, so each bit is tested on its own.
+	 *
+	 * @param row row of the first square
+	 * @param col column of the first square
+	 * @param length number of squares in the run
+	 * @param horizontal true for a run along the row
+	 * @return true if every square in the run is free
+	 */
+	@Override
+	public boolean isRunFree(int row, int col, int length, boolean horizontal) {
+		int start = row * size + col;
+		if (horizontal) {
+			return isRangeFree(start, start + length);
+		}
+		for (int i = 0, cell = start; i < length; i++, cell += size) {
+			if ((occupied(cell >>> 6) & (1L << cell)) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * ANDs the placement's masks with the taken squares, one word at a
+	 * time, whichever way the ship runs.
+	 */
+	@Override
+	public boolean isFree(PlacementTable table, int placement) {
+		for (int i = table.getMaskStart(placement); i < table.getMaskStart(placement + 1); i++) {
+			if ((occupied(table.getMaskWord(i)) & table.getMaskBits(i)) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the misses among squares w * 64 to w * 64 + 63, which is
+	 * just one word of the misses mask.
+	 *
+	 * @param w word index, from 0 to (size * size - 1) / 64
+	 * @return the miss bits of that word
+	 */
+	@Override
+	public long getMissWord(int w) {
+		return misses[w];
+	}
+
+	/**
+	 * Marks every square whose bit is set as a miss by ORing the bits
+	 * into one word of the misses mask.
+	 *
+	 * @param w word index
+	 * @param bits squares to mark as missed
+	 */
+	@Override
+	public void setMissWord(int w, long bits) {
+		misses[w] |= bits;
+	}
+
+	/**
+	 * Clears every mask and ship id in place.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(ships, 0L);
+		Arrays.fill(hits, 0L);
+		Arrays.fill(misses, 0L);
+		Arrays.fill(shipIds, NO_SHIP);
+	}
+
+	// Checks that the squares from (inclusive) to end (exclusive) are free
+	private boolean isRangeFree(int from, int end) {
+		int first = from >>> 6;
+		int last = (end - 1) >>> 6;
+
+		// Bits at or above "from" in the first word, and below "end" in the last
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> -end;
+
+		if (first == last) {
+			return (occupied(first) & firstMask & lastMask) == 0;
+		}
+		if ((occupied(first) & firstMask) != 0) {
+			return false;
+		}
+		for (int w = first + 1; w < last; w++) {
+			if (occupied(w) != 0) {
+				return false;
+			}
+		}
+		return (occupied(last) & lastMask) == 0;
+	}
+
+	// All squares in a word that are not plain water
+	private long occupied(int w) {
+		return ships[w] | hits[w] | misses[w];
+	}
+}
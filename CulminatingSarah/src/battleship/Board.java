@@ -0,0 +1,674 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.random.RandomGenerator;
+/**
+ * The Board class represents one Battleship board.
+ * 
+ * It stores: 
+ * - a CellGrid holding the board squares: a BitGrid (bitmasks) for
+ *   normal boards, or a SparseGrid (hash table) for huge boards
+ * - a list of ships placed on the board 
+ * 
+ * The squares can still be read as a 2D grid of integers through
+ * getGrid(). Grid values: 
+ * 0 = water
+ * 1 = ship
+ * 2 = hit
+ * 3 = miss
+ * 
+ * It is responsible for:
+ * - placing ships
+ * - handling shots
+ * - checking if all ships are sunk
+ * - telling its BoardListeners what each shot changed
+ */
+
+
+public class Board {
+	
+	//Constants representing board square states
+	public static final int EMPTY = 0;
+	public static final int SHIP = 1;
+	public static final int HIT = 2;
+	public static final int MISS = 3;
+	
+	// Size of the board (ex: 8 is 8 x 8)
+	private int size;
+	
+	// Ships, hits and misses, plus the ship on each square
+	private CellGrid cells;
+	
+	// 2D copy of the squares returned by getGrid(), created on first
+	// use and rebuilt when stale
+	private int [][] grid; 
+	private boolean gridStale;
+	
+	// List of all ships currently on the board
+	private ArrayList<Ship> ships;
+	
+	// Index of the ship hit by the last shot, or NO_SHIP
+	private int lastShipId = CellGrid.NO_SHIP;
+	
+	// Ships that are placed and not sunk yet
+	private int shipsAfloat;
+	
+	// Zobrist hash of the misses, hits and sunk ships, updated by fire()
+	private long hash;
+	
+	// Told about every miss, hit and sinking
+	private ArrayList<BoardListener> listeners = new ArrayList<>();
+	
+	// Holds the ships while relayout() puts them back, reused between games
+	private Ship[] relayoutShips = new Ship[0];
+	
+	// Placement tables by ship length, fetched when first needed; null
+	// for sparse boards and boards too big for the shared tables, which
+	// scan runs of squares instead
+	private PlacementTable[] tables;
+	
+	// Random positions placeShipRandom tries before listing every legal one
+	private static final int MAX_RANDOM_TRIES = 32;
+	
+	// Counts shots and placement tries
+	private static final GameMetrics METRICS = GameMetrics.get();
+	
+	// Boards with more squares than this use a SparseGrid by default
+	// (16M squares: a dense grid would need over 64 MB for ship ids)
+	public static final long MAX_DENSE_SQUARES = 1L << 24;
+	
+	// Largest board (in squares) that places ships with PlacementTables
+	// (256 x 256); bigger boards scan runs of free squares instead, so a
+	// bare Board never has to build the big tables
+	public static final int MAX_TABLE_SQUARES = 1 << 16;
+	
+	/**
+	 * Constructs a new Board with the given size.
+	 * Initializes the grid and ship list.
+	 * Huge boards (more than MAX_DENSE_SQUARES) get sparse storage.
+	 * @param size the board size 
+	 */
+	
+	public Board(int size) {
+		this(size, (long) size * size > MAX_DENSE_SQUARES);
+	}
+	
+	/**
+	 * Constructs a new Board with the given size and storage.
+	 * 
+	 * @param size the board size 
+	 * @param sparse true to store only non-water squares in a hash
+	 *               table, false to use bitmasks for every square
+	 */
+	public Board(int size, boolean sparse) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Board size must be positive: " + size);
+		}
+		if (!sparse && (long) size * size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Board too large for dense storage: " + size);
+		}
+		this.size = size;
+		cells = sparse ? new SparseGrid(size) : new BitGrid(size);
+		if (!sparse && (long) size * size <= MAX_TABLE_SQUARES) {
+			tables = new PlacementTable[size + 1];
+		}
+		ships = new ArrayList<>();
+		hash = Zobrist.empty(size);
+	}
+	
+	/**
+	 * Clears the board for a new game: every square becomes water and
+	 * the ship list is emptied. The grid memory is kept, so nothing
+	 * is allocated.
+	 */
+	public void reset() {
+		cells.clear();
+		ships.clear();
+		shipsAfloat = 0;
+		lastShipId = CellGrid.NO_SHIP;
+		gridStale = true;
+		hash = Zobrist.empty(size);
+	}
+	
+	/**
+	 * Starts a new game with the same ships: clears the board, repairs
+	 * every ship and places them all again at new random positions.
+	 * The Ship objects are reused, so no new ones are created.
+	 * 
+	 * @param rand random generator used for random placement
+	 */
+	public void relayout(RandomGenerator rand) {
+		int count = ships.size();
+		if (relayoutShips.length < count) {
+			relayoutShips = new Ship[count];
+		}
+		ships.toArray(relayoutShips);
+		reset();
+		for (int i = 0; i < count; i++) {
+			relayoutShips[i].reset();
+			placeShipRandom(relayoutShips[i], rand);
+		}
+	}
+	
+	/**
+	 * Returns the grid so the GUI can read board values.
+	 * Used by the GUI to display the board state.
+	 * 
+	 * The grid is a read-only view: it is refreshed from the squares
+	 * when the board has changed, and writing to it does not change
+	 * the board. It has an entry for every square, so huge boards
+	 * should use getCell() instead.
+	 * 
+	 * @return the 2D board grid
+	 */
+	public int[][] getGrid() {
+		if (grid == null) {
+			grid = new int[size][size];
+			gridStale = true;
+		}
+		if (gridStale) {
+			for (int r = 0; r < size; r++) {
+				for (int c = 0; c < size; c++) {
+					grid[r][c] = cells.get(r, c);
+				}
+			}
+			gridStale = false;
+		}
+		return grid;
+	}
+	
+	/**
+	 * Returns the value of a single square without building the grid.
+	 * 
+	 * @param row row index
+	 * @param col column index
+	 * @return EMPTY, SHIP, HIT or MISS
+	 */
+	public int getCell(int row, int col) {
+		return cells.get(row, col);
+	}
+	
+	/**
+	 * Returns the size of the board (number of rows and columns).
+	 * 
+	 * @return the board size
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	/**
+	 * Returns the list of ships on the board.
+	 * 
+	 * @return the ArrayList of Ship objects
+	 */
+	public ArrayList<Ship> getShips() {
+		return ships;
+	}
+	
+	/**
+	 * Checks whether a given row and column are inside the board.
+	 * 
+	 * @param row row index
+	 * @param col column index
+	 * @return true if the coordinate is on the board 
+	 */
+	public boolean inBounds(int row, int col) {
+		return row >= 0 && row < size && col >= 0 && col < size;
+	}
+	
+	/**
+	 * Returns true if this square has already been shot
+	 * (either a hit or miss).
+	 * 
+	 * @param row row index 
+	 * @param col column index 
+	 * @return true if grid value is 2 (hit) or 3 (miss) 
+	 */
+	public boolean alreadyTried(int row, int col) {
+		return cells.isTried(row, col);
+	}
+	
+	/**
+	 * Places a ship at a given position, for example when rebuilding a
+	 * recorded game.
+	 * 
+	 * @param ship the ship to place
+	 * @param row row of the ship's first square
+	 * @param col column of the ship's first square
+	 * @param horizontal true if the ship runs along the row
+	 * @throws IllegalArgumentException if the ship is off the board or overlaps another square that is not water
+	 */
+	public void placeShipAt(Ship ship, int row, int col, boolean horizontal) {
+		if (!canPlaceShip(ship.getLength(), row, col, horizontal)) {
+			throw new IllegalArgumentException("Can't place " + ship.getName() + " at (" + row + "," + col + ")"
+					+ (horizontal ? " horizontally" : " vertically"));
+		}
+		placeShip(ship, row, col, horizontal);
+	}
+	
+	/**
+	 * Places a ship randomly on the board.
+	 * 
+	 * First tries a few random positions, which is fast on a mostly
+	 * empty board. If none of them fit, it falls back to
+	 * placeShipUniform(), so it always finishes. Both ways pick every
+	 * legal position with the same chance.
+	 * 
+	 * @param ship the ship to place
+	 * @param rand random generator used for random placement
+	 * @throws IllegalStateException if the ship fits nowhere on the board
+	 */
+	public void placeShipRandom(Ship ship, RandomGenerator rand) {
+		// Try a limited number of random positions
+		for (int attempt = 0; attempt < MAX_RANDOM_TRIES; attempt++) {
+			int row = rand.nextInt(size);
+			int col = rand.nextInt(size);
+			boolean horizontal = rand.nextBoolean();
+			
+			// Check if the ship can be placed at this position 
+			if (canPlaceShip(ship.getLength(), row, col, horizontal)) {
+				placeShip(ship, row, col, horizontal);
+				METRICS.recordPlacement(attempt + 1, false);
+				return;
+			}
+		}
+		
+		// The board is crowded: pick from the list of legal positions
+		// (only counted once it worked, since it throws if nothing fits)
+		placeShipUniform(ship, rand);
+		METRICS.recordPlacement(MAX_RANDOM_TRIES, true);
+	}
+	
+	/**
+	 * Places a ship at a position chosen uniformly from every legal
+	 * position on the board.
+	 * 
+	 * The legal positions come from the ship length's PlacementTable:
+	 * each one is checked with a mask or two, then the randomly chosen
+	 * free one is placed. Boards without tables count them by scanning
+	 * each row and column once and tracking the run of free squares: a
+	 * run of n free squares holds n - length + 1 positions. Both list
+	 * the positions in the same order, so a seed gives the same layout
+	 * either way.
+	 * 
+	 * @param ship the ship to place
+	 * @param rand random generator used to choose the position
+	 * @throws IllegalStateException if the ship fits nowhere on the board
+	 */
+	public void placeShipUniform(Ship ship, RandomGenerator rand) {
+		int length = ship.getLength();
+		PlacementTable table = getTable(length);
+		int count = table == null ? scanPlacements(length, -1, null) : countFree(table);
+		if (count == 0) {
+			throw new IllegalStateException("No room for " + ship.getName() + " (length " + length
+					+ ") on a " + size + "x" + size + " board");
+		}
+		int target = rand.nextInt(count);
+		if (table == null) {
+			scanPlacements(length, target, ship);
+			return;
+		}
+		for (int p = 0; ; p++) {
+			if (cells.isFree(table, p) && target-- == 0) {
+				placeShip(ship, table.getRow(p), table.getCol(p), table.isHorizontal(p));
+				return;
+			}
+		}
+	}
+	
+	// Number of free placements in a table
+	private int countFree(PlacementTable table) {
+		int count = 0;
+		for (int p = 0; p < table.getCount(); p++) {
+			if (cells.isFree(table, p)) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	// The placement table for a ship length, or null if this board doesn't use them
+	private PlacementTable getTable(int length) {
+		if (tables == null || length > size) {
+			return null;
+		}
+		if (tables[length] == null) {
+			tables[length] = PlacementTable.of(size, length);
+		}
+		return tables[length];
+	}
+	
+	/**
+	 * Walks every legal position for a ship of the given length,
+	 * horizontal ones first. If ship is not null, the ship is placed
+	 * at the position numbered target (counting from 0).
+	 * 
+	 * @return the number of legal positions seen
+	 */
+	private int scanPlacements(int length, int target, Ship ship) {
+		int count = 0;
+		
+		// Horizontal: runs of free squares along each row
+		for (int r = 0; r < size; r++) {
+			int run = 0;
+			for (int c = 0; c < size; c++) {
+				run = isFree(r, c) ? run + 1 : 0;
+				if (run >= length) {
+					if (count == target && ship != null) {
+						placeShip(ship, r, c - length + 1, true);
+						return count + 1;
+					}
+					count++;
+				}
+			}
+		}
+		
+		// A length 1 ship is the same in both directions
+		if (length == 1) {
+			return count;
+		}
+		
+		// Vertical: runs of free squares down each column
+		for (int c = 0; c < size; c++) {
+			int run = 0;
+			for (int r = 0; r < size; r++) {
+				run = isFree(r, c) ? run + 1 : 0;
+				if (run >= length) {
+					if (count == target && ship != null) {
+						placeShip(ship, r - length + 1, c, false);
+						return count + 1;
+					}
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+	
+	// True if the square is plain water that has not been shot
+	private boolean isFree(int row, int col) {
+		return cells.get(row, col) == EMPTY;
+	}
+	
+	/**
+	 * Puts a ship on the board at a position that is known to be legal.
+	 */
+	private void placeShip(Ship ship, int row, int col, boolean horizontal) {
+		// The new ship's position in the ships list
+		int id = ships.size();
+		
+		// Store the position inside the Ship object 
+		ship.place(row, col, horizontal);
+		
+		// Mark each grid square of the ship
+		for (int i = 0; i < ship.getLength(); i++) {
+			cells.setShip(ship.getSegmentRow(i), ship.getSegmentCol(i), id);
+		}
+		
+		// Add the ship to the board's ship list
+		ships.add(ship);
+		shipsAfloat++;
+		gridStale = true;
+	}
+	
+	/**
+	 * Checks whether a ship can be placed at a given position. 
+	 * 
+	 * The ship must: 
+	 * - stay within the board
+	 * - not overlap another ship 
+	 * @param length ship length 
+	 * @param row row index
+	 * @param col column index
+	 * @param horizontal
+	 * @return true if placement is valid, false otherwise
+	 */
+	private boolean canPlaceShip(int length, int row, int col, boolean horizontal) {
+		// The last square of the ship must also be on the board
+		int endRow = horizontal ? row : row + length - 1;
+		int endCol = horizontal ? col + length - 1 : col;
+		if (!inBounds(row, col) || !inBounds(endRow, endCol)) {
+			return false;
+		}
+		PlacementTable table = getTable(length);
+		if (table != null) {
+			return cells.isFree(table, table.indexOf(row, col, horizontal));
+		}
+		return cells.isRunFree(row, col, length, horizontal);
+	}
+	
+	/**
+	 * Fires a shot at the given row and column.
+	 * 
+	 * Nothing is allocated: the outcome is an enum constant and, for a
+	 * HIT or SUNK, the ship that was hit is available from
+	 * getLastShipId() until the next shot.
+	 * 
+	 * @param row the row index 
+	 * @param col the col index
+	 * @return the outcome of the shot
+	 */
+	public ShotResult fire(int row, int col) {
+		lastShipId = CellGrid.NO_SHIP;
+		
+		// Shot is outside the board
+		if (!inBounds(row, col)) {
+			return ShotResult.OUT_OF_BOUNDS;
+		}
+		
+		// Shot was already taken before
+		if (alreadyTried(row, col)) {
+			return ShotResult.ALREADY_TRIED;
+		}
+		
+		gridStale = true;
+		METRICS.recordShot();
+		
+		long cell = (long) row * size + col;
+		
+		// Shot hits water
+		if (!cells.isShip(row, col)) {
+			cells.setMiss(row, col); // mark as a miss
+			hash ^= Zobrist.miss(cell);
+			for (int i = 0; i < listeners.size(); i++) {
+				listeners.get(i).shotMissed(this, row, col);
+			}
+			return ShotResult.MISS;
+		}
+		
+		// Shot hits a ship
+		cells.setHit(row, col); // mark as a hit
+		hash ^= Zobrist.hit(cell);
+		
+		// Look up which ship was hit
+		lastShipId = cells.getShipId(row, col);
+		Ship s = ships.get(lastShipId);
+		s.registerHit(s.segmentAt(row, col));
+		
+		// Check if that hit sank the ship
+		if (!s.isSunk()) {
+			for (int i = 0; i < listeners.size(); i++) {
+				listeners.get(i).cellHit(this, row, col, s);
+			}
+			return ShotResult.HIT;
+		}
+		shipsAfloat--;
+		hashSunk(s);
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).shipSunk(this, row, col, s);
+		}
+		if (shipsAfloat == 0) {
+			for (int i = 0; i < listeners.size(); i++) {
+				listeners.get(i).fleetDestroyed(this);
+			}
+		}
+		return ShotResult.SUNK;
+	}
+	
+	/**
+	 * Registers a listener to be told about every shot from now on.
+	 * 
+	 * @param listener the listener to add
+	 */
+	public void addListener(BoardListener listener) {
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Stops sending events to a listener.
+	 * 
+	 * @param listener the listener to remove
+	 */
+	public void removeListener(BoardListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * Places a ship at a given position with some of its segments
+	 * already hit, without sending events. Used by BoardSnapshot to
+	 * restore a saved board.
+	 * 
+	 * @param ship the ship to place (not hit yet)
+	 * @param row row of the ship's first square
+	 * @param col column of the ship's first square
+	 * @param horizontal true if the ship runs along the row
+	 * @param hitMask bit i is set if segment i is hit
+	 */
+	void restoreShip(Ship ship, int row, int col, boolean horizontal, long hitMask) {
+		placeShipAt(ship, row, col, horizontal);
+		for (long bits = hitMask; bits != 0; bits &= bits - 1) {
+			int segment = Long.numberOfTrailingZeros(bits);
+			cells.setHit(ship.getSegmentRow(segment), ship.getSegmentCol(segment));
+			ship.registerHit(segment);
+			hash ^= Zobrist.hit((long) ship.getSegmentRow(segment) * size + ship.getSegmentCol(segment));
+		}
+		if (ship.isSunk()) {
+			shipsAfloat--;
+			hashSunk(ship);
+		}
+	}
+	
+	// Swaps the hit keys of a sunk ship's squares for sunk keys
+	private void hashSunk(Ship ship) {
+		for (int i = 0; i < ship.getLength(); i++) {
+			long cell = (long) ship.getSegmentRow(i) * size + ship.getSegmentCol(i);
+			hash ^= Zobrist.hit(cell) ^ Zobrist.sunk(cell, ship.getLength());
+		}
+	}
+	
+	/**
+	 * Returns the misses among squares w * 64 to w * 64 + 63 as a
+	 * bitmask. Used by BoardSnapshot.
+	 * 
+	 * @param w word index
+	 * @return the miss bits of that word
+	 */
+	long getMissWord(int w) {
+		return cells.getMissWord(w);
+	}
+	
+	/**
+	 * Marks the squares of a miss bitmask as missed, without sending
+	 * events. Used by BoardSnapshot to restore a saved board.
+	 * 
+	 * @param w word index
+	 * @param bits squares to mark as missed
+	 */
+	void setMissWord(int w, long bits) {
+		for (long added = bits & ~cells.getMissWord(w); added != 0; added &= added - 1) {
+			hash ^= Zobrist.miss(w * 64L + Long.numberOfTrailingZeros(added));
+		}
+		cells.setMissWord(w, bits);
+		gridStale = true;
+	}
+	
+	/**
+	 * Returns an immutable copy of the board that can be shot at
+	 * without changing this board (see BoardState). Shots on the copy
+	 * share almost all of its memory, so look-ahead can fork it freely.
+	 * 
+	 * @return the current state of the board
+	 * @throws IllegalArgumentException if the board is too big (over MAX_DENSE_SQUARES)
+	 */
+	public BoardState snapshot() {
+		return new BoardState(this);
+	}
+	
+	/**
+	 * Returns the Zobrist hash of what the shots have revealed: the
+	 * misses, the hits and the sunk ships (see Zobrist). Boards with
+	 * the same shot pattern have the same hash; where the unhit ships
+	 * are makes no difference.
+	 * 
+	 * @return the hash
+	 */
+	public long getZobristHash() {
+		return hash;
+	}
+	
+	/**
+	 * Returns how many ships on the board are not sunk yet.
+	 * 
+	 * @return the number of ships still afloat
+	 */
+	public int getShipsAfloat() {
+		return shipsAfloat;
+	}
+	
+	/**
+	 * Returns the index (in getShips()) of the ship hit by the last
+	 * call to fire(), or -1 if the last shot did not hit a ship.
+	 * 
+	 * @return the last ship hit, or -1
+	 */
+	public int getLastShipId() {
+		return lastShipId;
+	}
+	
+	/**
+	 * Fires a shot at the given row and column.
+	 * Returns a message describing the result. 
+	 * 
+	 * This is a wrapper around fire() for callers that want text.
+	 * 
+	 * @param row therow index 
+	 * @param col the col index
+	 * @return "Out of bounds", "Already tried", "Miss", "Hit", or "Sunk"
+	 */
+	public String shootAt(int row, int col) {
+		switch (fire(row, col)) {
+		case OUT_OF_BOUNDS: return "Out of bounds";
+		case ALREADY_TRIED: return "Already tried";
+		case HIT: return "Hit " + ships.get(lastShipId).getName();
+		case SUNK: return "Sunk " + ships.get(lastShipId).getName();
+		default: return "Miss";
+		}
+	}
+		
+	/**
+	 * Returns true if every ship on the board is sunk.
+	 * Used to check if the game is over.
+	 * 
+	 * @return true if all ships are sunk
+	 */
+	public boolean allShipsSunk() {
+		// Kept up to date by fire(), so no squares or ships are scanned
+		return shipsAfloat == 0;
+	}
+	
+	/**
+	 * Returns the ship at a specific position, if any.
+	 * 
+	 * @param row the row index
+	 * @param col the column index
+	 * @return the Ship at that position, or null if none exists
+	 */
+	public Ship getShipAt(int row, int col) {
+		if (!inBounds(row, col)) {
+			return null;
+		}
+		int id = cells.getShipId(row, col);
+		return id == CellGrid.NO_SHIP ? null : ships.get(id);
+	}
+}
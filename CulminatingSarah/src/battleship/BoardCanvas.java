@@ -0,0 +1,140 @@
+package battleship;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * BoardCanvas draws a whole board on a single JavaFX Canvas.
+ *
+ * The GridPane renderer in GUIDriver uses one StackPane per cell,
+ * which becomes tens of thousands of scene graph nodes on a 100x100
+ * board. Here the board is one node: cells are drawn as sprites from
+ * a SpriteAtlas, and a mouse position is turned into a cell with a
+ * division instead of one click handler per cell.
+ */
+public class BoardCanvas extends Canvas {
+
+	// Space between cells, drawn as grid lines
+	private static final double GAP = 1;
+
+	// The board being drawn
+	private Board board;
+
+	// Pre-scaled images for the cells
+	private SpriteAtlas atlas;
+
+	// True to draw ships that have not been hit (player's own board)
+	private boolean showShips;
+
+	// Size of one cell and distance from one cell to the next
+	private double cellSize;
+	private double pitch;
+
+	/**
+	 * Constructs a canvas big enough for the whole board.
+	 *
+	 * @param board the board to draw
+	 * @param atlas sprites scaled to cellSize
+	 * @param cellSize width and height of one cell in pixels
+	 * @param showShips true to draw ships that have not been hit
+	 */
+	public BoardCanvas(Board board, SpriteAtlas atlas, double cellSize, boolean showShips) {
+		super(board.getSize() * (cellSize + GAP) + GAP, board.getSize() * (cellSize + GAP) + GAP);
+		this.board = board;
+		this.atlas = atlas;
+		this.cellSize = cellSize;
+		this.pitch = cellSize + GAP;
+		this.showShips = showShips;
+	}
+
+	/**
+	 * Draws every cell, with grid lines between them.
+	 */
+	public void drawAll() {
+		long start = System.nanoTime();
+		GraphicsContext gc = getGraphicsContext2D();
+		gc.setFill(Color.BLACK);
+		gc.fillRect(0, 0, getWidth(), getHeight());
+		for (int r = 0; r < board.getSize(); r++) {
+			for (int c = 0; c < board.getSize(); c++) {
+				drawCell(r, c);
+			}
+		}
+		GameMetrics.get().recordRedraw(System.nanoTime() - start);
+	}
+
+	/**
+	 * Redraws only the dirty cells, then clears the dirty list.
+	 *
+	 * @param dirty the cells that changed
+	 */
+	public void redrawDirty(DirtyCells dirty) {
+		long start = System.nanoTime();
+		for (int i = 0; i < dirty.size(); i++) {
+			drawCell(dirty.getRow(i), dirty.getCol(i));
+		}
+		dirty.clear();
+		GameMetrics.get().recordRedraw(System.nanoTime() - start);
+	}
+
+	/**
+	 * Draws one cell: water, then the ship (if shown), then the
+	 * hit or miss marker.
+	 *
+	 * @param r row index
+	 * @param c column index
+	 */
+	public void drawCell(int r, int c) {
+		GraphicsContext gc = getGraphicsContext2D();
+		double x = GAP + c * pitch;
+		double y = GAP + r * pitch;
+		int val = board.getCell(r, c);
+		Ship ship = board.getShipAt(r, c);
+
+		atlas.draw(gc, SpriteAtlas.WATER, x, y);
+		if (val == Board.SHIP && showShips && ship != null) {
+			atlas.draw(gc, atlas.shipSprite(ship), x, y);
+		}
+		if (val == Board.HIT && ship != null) {
+			atlas.draw(gc, ship.isSunk() ? SpriteAtlas.SUNK : SpriteAtlas.EXPLOSION, x, y);
+		} else if (val == Board.MISS) {
+			atlas.draw(gc, SpriteAtlas.MISS, x, y);
+		}
+	}
+
+	/**
+	 * Returns the row under a y position, or -1 if it is on a grid
+	 * line or off the board.
+	 *
+	 * @param y y position in pixels
+	 * @return the row index, or -1
+	 */
+	public int rowAt(double y) {
+		return cellAt(y);
+	}
+
+	/**
+	 * Returns the column under an x position, or -1 if it is on a grid
+	 * line or off the board.
+	 *
+	 * @param x x position in pixels
+	 * @return the column index, or -1
+	 */
+	public int colAt(double x) {
+		return cellAt(x);
+	}
+
+	// Turns a pixel position along one axis into a cell index
+	private int cellAt(double pos) {
+		double offset = pos - GAP;
+		if (offset < 0) {
+			return -1;
+		}
+		int index = (int) (offset / pitch);
+		if (index >= board.getSize() || offset - index * pitch >= cellSize) {
+			return -1;
+		}
+		return index;
+	}
+}
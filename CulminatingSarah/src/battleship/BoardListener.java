@@ -0,0 +1,57 @@
+package battleship;
+
+/**
+ * BoardListener is told about every change a shot makes to a Board.
+ *
+ * Register one with Board.addListener(). Each successful shot produces
+ * exactly one of shotMissed, cellHit or shipSunk, and the shot that
+ * sinks the last ship is followed by fleetDestroyed. Shots that are
+ * out of bounds or already tried change nothing and produce no event.
+ *
+ * Every method does nothing by default, so a listener only overrides
+ * the events it cares about. Events are sent on the thread that fired
+ * the shot, in the order the listeners were added.
+ */
+public interface BoardListener {
+
+	/**
+	 * A shot landed in the water.
+	 *
+	 * @param board the board that was shot at
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 */
+	default void shotMissed(Board board, int row, int col) {
+	}
+
+	/**
+	 * A shot hit a ship without sinking it.
+	 *
+	 * @param board the board that was shot at
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param ship the ship that was hit
+	 */
+	default void cellHit(Board board, int row, int col, Ship ship) {
+	}
+
+	/**
+	 * A shot hit the last unhit square of a ship.
+	 *
+	 * @param board the board that was shot at
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param ship the ship that sank
+	 */
+	default void shipSunk(Board board, int row, int col, Ship ship) {
+	}
+
+	/**
+	 * Every ship on the board has been sunk. Sent right after the
+	 * shipSunk event of the last ship.
+	 *
+	 * @param board the board whose fleet is gone
+	 */
+	default void fleetDestroyed(Board board) {
+	}
+}
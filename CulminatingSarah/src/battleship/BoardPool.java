@@ -0,0 +1,79 @@
+package battleship;
+
+import java.util.ArrayDeque;
+import java.util.random.RandomGenerator;
+
+/**
+ * BoardPool keeps a stack of boards, each with its fleet of Ship
+ * objects, so simulation workers can start new games without creating
+ * a new board, grid or ships every time.
+ *
+ * - acquire() hands out a board with a fresh random layout
+ * - release() gives it back for the next game
+ *
+ * A pool is meant to belong to one worker thread and is not thread
+ * safe. Give each worker its own pool.
+ */
+public class BoardPool {
+
+	// Size and fleet of the boards in this pool
+	private GameConfig config;
+
+	// Boards that are not in use
+	private ArrayDeque<Board> free;
+
+	/**
+	 * Constructs a pool and creates its boards up front.
+	 *
+	 * @param config board size and fleet
+	 * @param boards number of boards to create now
+	 */
+	public BoardPool(GameConfig config, int boards) {
+		this.config = config;
+		this.free = new ArrayDeque<>(Math.max(boards, 2));
+		for (int i = 0; i < boards; i++) {
+			free.push(newBoard());
+		}
+	}
+
+	/**
+	 * Takes a board from the pool and lays its ships out at new random
+	 * positions. A new board is only created if the pool is empty.
+	 *
+	 * @param rand random generator used for ship placement
+	 * @return a board ready for a new game
+	 */
+	public Board acquire(RandomGenerator rand) {
+		Board board = free.poll();
+		if (board == null) {
+			board = newBoard();
+		}
+		board.relayout(rand);
+		return board;
+	}
+
+	/**
+	 * Returns a board to the pool once its game is over.
+	 *
+	 * @param board a board from acquire()
+	 */
+	public void release(Board board) {
+		free.push(board);
+	}
+
+	/**
+	 * Returns how many boards are waiting in the pool.
+	 *
+	 * @return the number of free boards
+	 */
+	public int available() {
+		return free.size();
+	}
+
+	// Creates a board and its fleet (acquire() lays the ships out again)
+	private Board newBoard() {
+		Board board = config.createBoard();
+		config.getFleet().placeAll(board, new SplitMix(0));
+		return board;
+	}
+}
@@ -0,0 +1,288 @@
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BoardSnapshot is a compact binary copy of a Board's state.
+ *
+ * The layout (little endian) is:
+ * - header, 16 bytes: MAGIC, VERSION, board size, ship count
+ * - one 16-byte record per ship: packed origin (int), length (byte),
+ *   flags (byte, HORIZONTAL), name length in bytes (short), hit mask
+ *   (long, bit i set if segment i is hit)
+ * - the miss bitmap: one long per 64 squares, numbered row by row
+ * - the ship names in UTF-8, one after another
+ *
+ * Hits are not stored as a second bitmap: every hit square is on a
+ * ship, so the ships' hit masks already hold them. A standard 10x10
+ * game is 112 bytes plus the names.
+ *
+ * write() saves a board into a ByteBuffer. A BoardSnapshot object is a
+ * view over a buffer holding a snapshot: its getters read straight
+ * from the buffer without copying it, so a snapshot received from
+ * another process (or a mapped file) can be inspected as is, and
+ * toBoard() rebuilds a Board without placing any ship at random.
+ *
+ * Snapshots need a miss bitmap the size of the board, so they are only
+ * for boards up to Board.MAX_DENSE_SQUARES squares.
+ */
+public class BoardSnapshot {
+
+	// "BSNP" and the format version
+	public static final int MAGIC = 0x504E5342;
+	public static final int VERSION = 1;
+
+	// Flag bit in a ship record
+	public static final int HORIZONTAL = 1;
+
+	// Sizes of the fixed parts in bytes
+	private static final int HEADER_BYTES = 16;
+	private static final int SHIP_BYTES = 16;
+
+	// The snapshot's bytes, starting at index 0
+	private ByteBuffer bytes;
+
+	// Board size, ship count and where each section starts
+	private int size;
+	private int shipCount;
+	private int missStart;
+	private int nameStart;
+
+	/**
+	 * Wraps a buffer holding a snapshot, starting at its position.
+	 * The buffer is not copied or changed.
+	 *
+	 * @param buffer the snapshot bytes
+	 * @throws IllegalArgumentException if the bytes are not a valid snapshot
+	 */
+	public BoardSnapshot(ByteBuffer buffer) {
+		bytes = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		if (bytes.remaining() < HEADER_BYTES || bytes.getInt(0) != MAGIC) {
+			throw new IllegalArgumentException("Not a board snapshot");
+		}
+		if (bytes.getInt(4) != VERSION) {
+			throw new IllegalArgumentException("Unsupported snapshot version: " + bytes.getInt(4));
+		}
+		size = bytes.getInt(8);
+		shipCount = bytes.getInt(12);
+		if (size <= 0 || (long) size * size > Board.MAX_DENSE_SQUARES || shipCount < 0) {
+			throw new IllegalArgumentException("Bad snapshot header: size " + size + ", " + shipCount + " ships");
+		}
+		missStart = HEADER_BYTES + shipCount * SHIP_BYTES;
+		nameStart = missStart + words(size) * 8;
+		if (bytes.remaining() < nameStart) {
+			throw new IllegalArgumentException("Snapshot is truncated");
+		}
+	}
+
+	/**
+	 * Returns how many bytes write() needs for a board.
+	 *
+	 * @param board the board
+	 * @return the snapshot size in bytes
+	 */
+	public static int byteSize(Board board) {
+		checkSize(board.getSize());
+		int total = HEADER_BYTES + board.getShips().size() * SHIP_BYTES + words(board.getSize()) * 8;
+		for (Ship ship : board.getShips()) {
+			total += ship.getName().getBytes(StandardCharsets.UTF_8).length;
+		}
+		return total;
+	}
+
+	/**
+	 * Writes a snapshot of a board at the buffer's position and moves
+	 * the position past it.
+	 *
+	 * @param board the board to save
+	 * @param buffer where to write; needs byteSize(board) bytes left
+	 * @throws IllegalArgumentException if the board is too big for a snapshot
+	 */
+	public static void write(Board board, ByteBuffer buffer) {
+		int size = board.getSize();
+		checkSize(size);
+		ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(board.getShips().size());
+		byte[][] names = new byte[board.getShips().size()][];
+		for (int i = 0; i < names.length; i++) {
+			Ship ship = board.getShips().get(i);
+			names[i] = ship.getName().getBytes(StandardCharsets.UTF_8);
+			buffer.putInt(PackedCoord.pack(ship.getRow(), ship.getCol()));
+			buffer.put((byte) ship.getLength());
+			buffer.put((byte) (ship.isHorizontal() ? HORIZONTAL : 0));
+			buffer.putShort((short) names[i].length);
+			buffer.putLong(ship.getHitMask());
+		}
+		for (int w = 0; w < words(size); w++) {
+			buffer.putLong(board.getMissWord(w));
+		}
+		for (byte[] name : names) {
+			buffer.put(name);
+		}
+		buffer.order(order);
+	}
+
+	/**
+	 * Saves a board into a new buffer of exactly the right size.
+	 *
+	 * @param board the board to save
+	 * @return a buffer holding the snapshot, ready to be read
+	 */
+	public static ByteBuffer of(Board board) {
+		ByteBuffer buffer = ByteBuffer.allocate(byteSize(board));
+		write(board, buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Returns the board size.
+	 *
+	 * @return the size (ex: 10 is 10 x 10)
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of ships on the board.
+	 *
+	 * @return the ship count
+	 */
+	public int getShipCount() {
+		return shipCount;
+	}
+
+	/**
+	 * Returns the row of a ship's first square.
+	 *
+	 * @param ship ship index (order the ships were placed)
+	 * @return the row
+	 */
+	public int getShipRow(int ship) {
+		return PackedCoord.row(bytes.getInt(shipRecord(ship)));
+	}
+
+	/**
+	 * Returns the column of a ship's first square.
+	 *
+	 * @param ship ship index
+	 * @return the column
+	 */
+	public int getShipCol(int ship) {
+		return PackedCoord.col(bytes.getInt(shipRecord(ship)));
+	}
+
+	/**
+	 * Returns the length of a ship.
+	 *
+	 * @param ship ship index
+	 * @return the length in squares
+	 */
+	public int getShipLength(int ship) {
+		return bytes.get(shipRecord(ship) + 4);
+	}
+
+	/**
+	 * Returns true if a ship runs along its row.
+	 *
+	 * @param ship ship index
+	 * @return true if horizontal
+	 */
+	public boolean isShipHorizontal(int ship) {
+		return (bytes.get(shipRecord(ship) + 5) & HORIZONTAL) != 0;
+	}
+
+	/**
+	 * Returns which segments of a ship are hit.
+	 *
+	 * @param ship ship index
+	 * @return bit i is set if segment i is hit
+	 */
+	public long getShipHits(int ship) {
+		return bytes.getLong(shipRecord(ship) + 8);
+	}
+
+	/**
+	 * Returns the name of a ship. This is the only getter that creates
+	 * an object.
+	 *
+	 * @param ship ship index
+	 * @return the ship's name
+	 */
+	public String getShipName(int ship) {
+		int start = nameStart;
+		for (int i = 0; i < ship; i++) {
+			start += nameLength(i);
+		}
+		byte[] name = new byte[nameLength(ship)];
+		bytes.get(start, name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns true if a square was shot and missed.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return true if the square is a miss
+	 */
+	public boolean isMiss(int row, int col) {
+		int square = row * size + col;
+		return (bytes.getLong(missStart + (square >>> 6) * 8) & (1L << square)) != 0;
+	}
+
+	/**
+	 * Builds a new Board holding the saved state: the same ships at the
+	 * same positions, with the same hits and misses. Listeners are not
+	 * part of a snapshot.
+	 *
+	 * @return the restored board
+	 * @throws IllegalArgumentException if the saved ships don't fit together
+	 */
+	public Board toBoard() {
+		Board board = new Board(size, false);
+		for (int i = 0; i < shipCount; i++) {
+			int length = getShipLength(i);
+			long hits = getShipHits(i);
+			if (length < 1 || length > Ship.MAX_LENGTH || (length < 64 && (hits >>> length) != 0)) {
+				throw new IllegalArgumentException("Bad ship record " + i + " in snapshot");
+			}
+			Ship ship = new Ship(getShipName(i), length);
+			board.restoreShip(ship, getShipRow(i), getShipCol(i), isShipHorizontal(i), hits);
+		}
+		for (int w = 0; w < words(size); w++) {
+			board.setMissWord(w, bytes.getLong(missStart + w * 8));
+		}
+		return board;
+	}
+
+	// Byte position of a ship record
+	private int shipRecord(int ship) {
+		if (ship < 0 || ship >= shipCount) {
+			throw new IndexOutOfBoundsException("Ship " + ship + " of " + shipCount);
+		}
+		return HEADER_BYTES + ship * SHIP_BYTES;
+	}
+
+	// Length of a ship's name in bytes
+	private int nameLength(int ship) {
+		return bytes.getShort(shipRecord(ship) + 6) & 0xFFFF;
+	}
+
+	// Number of longs in the miss bitmap
+	private static int words(int size) {
+		return (size * size + 63) >>> 6;
+	}
+
+	// Snapshots keep a full miss bitmap, so the board can't be huge
+	private static void checkSize(int size) {
+		if ((long) size * size > Board.MAX_DENSE_SQUARES) {
+			throw new IllegalArgumentException("Board too large for a snapshot: " + size);
+		}
+	}
+}
@@ -0,0 +1,378 @@
+package battleship;
+
+/**
+ * BoardState is an immutable copy of a Board that can be shot at
+ * without changing anything: fire() returns a new BoardState and
+ * leaves the old one as it was. It is meant for AIs that look ahead
+ * ("what if I shoot here, then there?") and for endgame solvers.
+ *
+ * Forking a state is cheap because states share everything a shot
+ * doesn't change:
+ * - the ships (position, length and name) never change after
+ *   Board.snapshot(), so every state forked from it shares one copy
+ * - the misses are kept as bit words in chunks of CHUNK_WORDS words
+ *   (512 squares). A miss copies the short array of chunk pointers and
+ *   the one chunk it lands in; every other chunk stays shared. On a
+ *   10x10 board that is one chunk of 2 words.
+ * - the hits are kept as one hit mask per ship (like BoardSnapshot),
+ *   so a hit copies one long per ship
+ * So a shot costs a few words instead of a copy of the grid and every
+ * Ship. Nothing is ever changed in place, so states can be read by
+ * any number of threads.
+ *
+ * A state keeps the same Zobrist hash as the Board would after the
+ * same shots, so look-ahead results can be cached by it. toBoard()
+ * turns a state back into a normal Board.
+ */
+public class BoardState {
+
+	// Miss words per chunk (a power of two)
+	public static final int CHUNK_WORDS = 8;
+	private static final int CHUNK_SHIFT = 3;
+
+	// Ships of the board, shared by every state forked from one snapshot
+	private Ships ships;
+
+	// Misses: bit i of missChunks[c][j] is square (c * CHUNK_WORDS + j) * 64 + i.
+	// The arrays are shared between states and never written after
+	// they are made.
+	private long[][] missChunks;
+
+	// Hit segments of each ship (bit i = segment i), also shared
+	private long[] shipHits;
+
+	// Zobrist hash and ships not sunk yet
+	private long hash;
+	private int shipsAfloat;
+
+	// What the shot that made this state did, and the ship it hit
+	private ShotResult lastResult;
+	private int lastShipId;
+
+	/**
+	 * Makes a state from a board. Used by Board.snapshot().
+	 *
+	 * @param board the board to copy
+	 * @throws IllegalArgumentException if the board is too big to copy
+	 */
+	BoardState(Board board) {
+		int size = board.getSize();
+		if ((long) size * size > Board.MAX_DENSE_SQUARES) {
+			throw new IllegalArgumentException("Board too large for a state: " + size);
+		}
+		ships = new Ships(board);
+
+		int words = (size * size + 63) >>> 6;
+		missChunks = new long[(words + CHUNK_WORDS - 1) >>> CHUNK_SHIFT][];
+		for (int c = 0; c < missChunks.length; c++) {
+			missChunks[c] = new long[Math.min(CHUNK_WORDS, words - (c << CHUNK_SHIFT))];
+			for (int j = 0; j < missChunks[c].length; j++) {
+				missChunks[c][j] = board.getMissWord((c << CHUNK_SHIFT) + j);
+			}
+		}
+
+		shipHits = new long[ships.count];
+		for (int i = 0; i < ships.count; i++) {
+			shipHits[i] = board.getShips().get(i).getHitMask();
+		}
+		hash = board.getZobristHash();
+		shipsAfloat = board.getShipsAfloat();
+		lastShipId = CellGrid.NO_SHIP;
+	}
+
+	// Makes a state after a shot, sharing whatever the shot didn't change
+	private BoardState(BoardState from, long[][] missChunks, long[] shipHits, long hash, int shipsAfloat,
+			ShotResult lastResult, int lastShipId) {
+		this.ships = from.ships;
+		this.missChunks = missChunks;
+		this.shipHits = shipHits;
+		this.hash = hash;
+		this.shipsAfloat = shipsAfloat;
+		this.lastResult = lastResult;
+		this.lastShipId = lastShipId;
+	}
+
+	/**
+	 * Returns the state after a shot. This state is not changed.
+	 *
+	 * An OUT_OF_BOUNDS or ALREADY_TRIED shot changes nothing, so the
+	 * new state only differs in getLastResult().
+	 *
+	 * @param row the row index
+	 * @param col the column index
+	 * @return the new state; its getLastResult() is the outcome
+	 */
+	public BoardState fire(int row, int col) {
+		if (!inBounds(row, col)) {
+			return new BoardState(this, missChunks, shipHits, hash, shipsAfloat, ShotResult.OUT_OF_BOUNDS,
+					CellGrid.NO_SHIP);
+		}
+		if (isTried(row, col)) {
+			return new BoardState(this, missChunks, shipHits, hash, shipsAfloat, ShotResult.ALREADY_TRIED,
+					CellGrid.NO_SHIP);
+		}
+
+		int square = row * ships.size + col;
+		int id = ships.shipAt(row, col);
+
+		// Water: copy the chunk pointers and the one chunk that changes
+		if (id == CellGrid.NO_SHIP) {
+			int w = square >>> 6;
+			int c = w >>> CHUNK_SHIFT;
+			long[][] chunks = missChunks.clone();
+			chunks[c] = chunks[c].clone();
+			chunks[c][w & (CHUNK_WORDS - 1)] |= 1L << square;
+			return new BoardState(this, chunks, shipHits, hash ^ Zobrist.miss(square), shipsAfloat, ShotResult.MISS,
+					CellGrid.NO_SHIP);
+		}
+
+		// A ship: copy the hit masks
+		long[] hits = shipHits.clone();
+		hits[id] |= 1L << ships.segment(id, row, col);
+		long newHash = hash ^ Zobrist.hit(square);
+		if (!isSunk(id, hits)) {
+			return new BoardState(this, missChunks, hits, newHash, shipsAfloat, ShotResult.HIT, id);
+		}
+
+		// Swap the hit keys of the sunk ship's squares for sunk keys
+		int length = ships.length[id];
+		for (int i = 0, cell = ships.start[id]; i < length; i++, cell += ships.step[id]) {
+			newHash ^= Zobrist.hit(cell) ^ Zobrist.sunk(cell, length);
+		}
+		return new BoardState(this, missChunks, hits, newHash, shipsAfloat - 1, ShotResult.SUNK, id);
+	}
+
+	/**
+	 * Returns what fire() would do at a square, without making a state.
+	 *
+	 * @param row the row index
+	 * @param col the column index
+	 * @return the outcome the shot would have
+	 */
+	public ShotResult peek(int row, int col) {
+		if (!inBounds(row, col)) {
+			return ShotResult.OUT_OF_BOUNDS;
+		}
+		if (isTried(row, col)) {
+			return ShotResult.ALREADY_TRIED;
+		}
+		int id = ships.shipAt(row, col);
+		if (id == CellGrid.NO_SHIP) {
+			return ShotResult.MISS;
+		}
+		long hits = shipHits[id] | 1L << ships.segment(id, row, col);
+		return hits == fullMask(ships.length[id]) ? ShotResult.SUNK : ShotResult.HIT;
+	}
+
+	/**
+	 * Returns the outcome of the shot that made this state.
+	 *
+	 * @return the outcome, or null for a state made by Board.snapshot()
+	 */
+	public ShotResult getLastResult() {
+		return lastResult;
+	}
+
+	/**
+	 * Returns the index of the ship hit by the shot that made this
+	 * state (same numbering as Board.getShips()).
+	 *
+	 * @return the ship index, or -1 if no ship was hit
+	 */
+	public int getLastShipId() {
+		return lastShipId;
+	}
+
+	/**
+	 * Returns the board size.
+	 *
+	 * @return the size (ex: 10 is 10 x 10)
+	 */
+	public int getSize() {
+		return ships.size;
+	}
+
+	/**
+	 * Returns the state of a square using the Board constants.
+	 *
+	 * @param row the row index
+	 * @param col the column index
+	 * @return EMPTY, SHIP, HIT or MISS
+	 */
+	public int getCell(int row, int col) {
+		if (isMiss(row, col)) {
+			return Board.MISS;
+		}
+		int id = ships.shipAt(row, col);
+		if (id == CellGrid.NO_SHIP) {
+			return Board.EMPTY;
+		}
+		return (shipHits[id] & (1L << ships.segment(id, row, col))) != 0 ? Board.HIT : Board.SHIP;
+	}
+
+	/**
+	 * Returns true if the square was shot and missed.
+	 *
+	 * @param row the row index
+	 * @param col the column index
+	 * @return true if the square is a miss
+	 */
+	public boolean isMiss(int row, int col) {
+		int square = row * ships.size + col;
+		int w = square >>> 6;
+		return (missChunks[w >>> CHUNK_SHIFT][w & (CHUNK_WORDS - 1)] & (1L << square)) != 0;
+	}
+
+	/**
+	 * Returns true if the square has already been shot.
+	 *
+	 * @param row the row index
+	 * @param col the column index
+	 * @return true if the square is a hit or a miss
+	 */
+	public boolean isTried(int row, int col) {
+		int id = ships.shipAt(row, col);
+		if (id == CellGrid.NO_SHIP) {
+			return isMiss(row, col);
+		}
+		return (shipHits[id] & (1L << ships.segment(id, row, col))) != 0;
+	}
+
+	/**
+	 * Returns the number of ships.
+	 *
+	 * @return the ship count
+	 */
+	public int getShipCount() {
+		return ships.count;
+	}
+
+	/**
+	 * Returns the length of a ship.
+	 *
+	 * @param ship ship index
+	 * @return the length in squares
+	 */
+	public int getShipLength(int ship) {
+		return ships.length[ship];
+	}
+
+	/**
+	 * Returns true if a ship is sunk.
+	 *
+	 * @param ship ship index
+	 * @return true if every segment is hit
+	 */
+	public boolean isShipSunk(int ship) {
+		return isSunk(ship, shipHits);
+	}
+
+	/**
+	 * Returns how many ships are not sunk yet.
+	 *
+	 * @return the number of ships still afloat
+	 */
+	public int getShipsAfloat() {
+		return shipsAfloat;
+	}
+
+	/**
+	 * Returns true if every ship is sunk.
+	 *
+	 * @return true if the game is over
+	 */
+	public boolean allShipsSunk() {
+		return shipsAfloat == 0;
+	}
+
+	/**
+	 * Returns the Zobrist hash, the same one Board.getZobristHash()
+	 * gives after the same shots.
+	 *
+	 * @return the hash
+	 */
+	public long getZobristHash() {
+		return hash;
+	}
+
+	/**
+	 * Builds a normal Board with the same ships, hits and misses (with
+	 * new Ship objects and no listeners).
+	 *
+	 * @return the board
+	 */
+	public Board toBoard() {
+		Board board = new Board(ships.size, false);
+		for (int i = 0; i < ships.count; i++) {
+			int start = ships.start[i];
+			board.restoreShip(new Ship(ships.names[i], ships.length[i]), start / ships.size, start % ships.size,
+					ships.step[i] == 1, shipHits[i]);
+		}
+		for (int c = 0; c < missChunks.length; c++) {
+			for (int j = 0; j < missChunks[c].length; j++) {
+				board.setMissWord((c << CHUNK_SHIFT) + j, missChunks[c][j]);
+			}
+		}
+		return board;
+	}
+
+	// True if the square is on the board
+	private boolean inBounds(int row, int col) {
+		return row >= 0 && row < ships.size && col >= 0 && col < ships.size;
+	}
+
+	// True if every segment of a ship is set in the hit masks
+	private boolean isSunk(int ship, long[] hits) {
+		return hits[ship] == fullMask(ships.length[ship]);
+	}
+
+	// Hit mask of a ship with every segment hit
+	private static long fullMask(int length) {
+		return -1L >>> (Ship.MAX_LENGTH - length);
+	}
+
+	// Where the ships are; made once per snapshot and never changed
+	private static final class Ships {
+		final int size;
+		final int count;
+		final int[] start;
+		final int[] step;
+		final int[] length;
+		final String[] names;
+
+		Ships(Board board) {
+			size = board.getSize();
+			count = board.getShips().size();
+			start = new int[count];
+			step = new int[count];
+			length = new int[count];
+			names = new String[count];
+			for (int i = 0; i < count; i++) {
+				Ship ship = board.getShips().get(i);
+				start[i] = ship.getRow() * size + ship.getCol();
+				step[i] = ship.isHorizontal() ? 1 : size;
+				length[i] = ship.getLength();
+				names[i] = ship.getName();
+			}
+		}
+
+		// Index of the ship on a square, or NO_SHIP. A fleet only has a
+		// few ships, so they are just checked one by one.
+		int shipAt(int row, int col) {
+			for (int i = 0; i < count; i++) {
+				int r = start[i] / size;
+				int c = start[i] % size;
+				if (step[i] == 1 ? row == r && col >= c && col < c + length[i]
+						: col == c && row >= r && row < r + length[i]) {
+					return i;
+				}
+			}
+			return CellGrid.NO_SHIP;
+		}
+
+		// Segment of ship i on a square it covers
+		int segment(int i, int row, int col) {
+			return step[i] == 1 ? col - start[i] % size : row - start[i] / size;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package battleship;
+
+/**
+ * BookAI plays the first shots of a game from an OpeningBook and then
+ * hands over to another strategy.
+ *
+ * Every result is passed on to the other strategy too, so when the
+ * game leaves the book it knows everything that happened. The game
+ * leaves the book when:
+ * - the table runs out (depth shots were played)
+ * - a ship is sunk
+ * - the book has no move for the position
+ * - a shot that wasn't the book's move is recorded (for example the
+ *   GUI's fallback shot)
+ */
+public class BookAI implements TargetingStrategy {
+
+	// Plays once the game leaves the book
+	private TargetingStrategy strategy;
+
+	// The book and the table for this game
+	private OpeningBook book;
+	private int table;
+	private int depth;
+
+	// Current position in the table, how many book shots were played,
+	// and whether the game is still in the book
+	private int node;
+	private int level;
+	private boolean inBook = true;
+
+	// The move the book gave last, so recordShot can check it was played
+	private int bookMove = OpeningBook.NO_MOVE;
+
+	/**
+	 * Constructs a book player.
+	 *
+	 * @param strategy plays once the game leaves the book
+	 * @param book the opening book
+	 * @param table the book's table for this game's size and fleet
+	 */
+	public BookAI(TargetingStrategy strategy, OpeningBook book, int table) {
+		this.strategy = strategy;
+		this.book = book;
+		this.table = table;
+		this.depth = book.getDepth(table);
+	}
+
+	/**
+	 * Returns the book move while in the book, otherwise the other
+	 * strategy's shot.
+	 *
+	 * @return the square to shoot at, packed
+	 */
+	@Override
+	public int nextShot() {
+		if (inBook) {
+			bookMove = book.getMove(table, node);
+			if (bookMove != OpeningBook.NO_MOVE) {
+				return bookMove;
+			}
+			inBook = false;
+		}
+		return strategy.nextShot();
+	}
+
+	/**
+	 * Passes the result on and moves to the next book position.
+	 *
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param result result of the shot
+	 * @param sunk the ship that was sunk when result is SUNK, otherwise null
+	 */
+	@Override
+	public void recordShot(int row, int col, ShotResult result, Ship sunk) {
+		strategy.recordShot(row, col, result, sunk);
+		if (!inBook) {
+			return;
+		}
+		if (PackedCoord.pack(row, col) != bookMove || result == ShotResult.SUNK || ++level >= depth) {
+			inBook = false;
+			return;
+		}
+		node = 2 * node + (result == ShotResult.HIT ? 2 : 1);
+	}
+
+	/**
+	 * Passes the budget on; book moves take no time.
+	 *
+	 * @param millis time per move in milliseconds, or 0 for no limit
+	 */
+	@Override
+	public void setTimeBudget(long millis) {
+		strategy.setTimeBudget(millis);
+	}
+
+	/**
+	 * Starts a new game at the top of the book.
+	 */
+	@Override
+	public void reset() {
+		strategy.reset();
+		node = 0;
+		level = 0;
+		inBook = true;
+		bookMove = OpeningBook.NO_MOVE;
+	}
+
+	/**
+	 * Returns true while the shots still come from the book.
+	 *
+	 * @return true if in the book
+	 */
+	public boolean isInBook() {
+		return inBook;
+	}
+}
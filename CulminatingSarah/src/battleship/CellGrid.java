@@ -0,0 +1,124 @@
+package battleship;
+
+/**
+ * CellGrid stores the state of every square on a Board.
+ *
+ * Board only talks to its squares through this interface, so the
+ * storage can be picked to suit the board:
+ * - BitGrid: bitmasks, for normal sized boards
+ * - SparseGrid: a hash table of the few squares that are not plain
+ *   water, for huge boards that are almost all empty ocean
+ */
+public interface CellGrid {
+
+	// Value returned by getShipId when no ship covers the square
+	int NO_SHIP = -1;
+
+	/**
+	 * Returns the state of a square using the Board constants
+	 * (EMPTY, SHIP, HIT or MISS).
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return the square's state
+	 */
+	int get(int row, int col);
+
+	/**
+	 * Returns true if the square is covered by a ship (hit or not).
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return true if a ship sits on this square
+	 */
+	boolean isShip(int row, int col);
+
+	/**
+	 * Returns true if the square has already been shot.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return true if the square is a hit or a miss
+	 */
+	boolean isTried(int row, int col);
+
+	/**
+	 * Returns the index of the ship on a square.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @return the ship's index, or NO_SHIP for water
+	 */
+	int getShipId(int row, int col);
+
+	/**
+	 * Marks a square as covered by the given ship.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 * @param shipId index of the ship in the Board's ship list
+	 */
+	void setShip(int row, int col, int shipId);
+
+	/**
+	 * Marks a square as hit.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 */
+	void setHit(int row, int col);
+
+	/**
+	 * Marks a square as missed.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 */
+	void setMiss(int row, int col);
+
+	/**
+	 * Checks whether a straight run of squares is free (not a ship,
+	 * hit or miss). The run must already be inside the board.
+	 *
+	 * @param row row of the first square
+	 * @param col column of the first square
+	 * @param length number of squares in the run
+	 * @param horizontal true for a run along the row
+	 * @return true if every square in the run is free
+	 */
+	boolean isRunFree(int row, int col, int length, boolean horizontal);
+
+	/**
+	 * Checks whether every square of a placement is free, like
+	 * isRunFree for the same run.
+	 *
+	 * @param table placements for this grid's size and the ship's length
+	 * @param placement placement number in the table
+	 * @return true if every square of the placement is free
+	 */
+	boolean isFree(PlacementTable table, int placement);
+
+	/**
+	 * Returns the misses among 64 squares as a bitmask: bit i is set
+	 * if square w * 64 + i (numbered row by row) is a miss.
+	 *
+	 * @param w word index, from 0 to (size * size - 1) / 64
+	 * @return the miss bits of that word
+	 */
+	long getMissWord(int w);
+
+	/**
+	 * Marks every square whose bit is set as a miss, 64 squares at a
+	 * time (the reverse of getMissWord).
+	 *
+	 * @param w word index
+	 * @param bits squares to mark as missed
+	 */
+	void setMissWord(int w, long bits);
+
+	/**
+	 * Turns every square back into plain water, keeping the memory
+	 * already allocated so the grid can be reused.
+	 */
+	void clear();
+}
@@ -1,3 +1,5 @@
+package battleship;
+
 /**
  * The coordinate class represents a single position on the Battleship board.
  * 
@@ -66,6 +68,17 @@ public class Coordinate {
 		return row == c.row && col == c.col;
 	}
 
+	/**
+	 * Returns a hash code that matches equals, so Coordinates can be
+	 * used in HashSets and as HashMap keys.
+	 * 
+	 * @return the hash code
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * row + col;
+	}
+
 	/**
 	 * Returns a readable string representation of this Coordinate
 	 * 
@@ -0,0 +1,115 @@
+package battleship;
+
+/**
+ * DirtyCells remembers which squares of a board need to be redrawn.
+ *
+ * Squares are stored as row * size + col. Marking a square twice only
+ * records it once, and the list is emptied after each redraw, so the
+ * GUI only touches squares that actually changed.
+ *
+ * It listens to a Board, so every shot marks exactly the squares it
+ * changed: the square itself, plus the whole ship when it sinks.
+ */
+public class DirtyCells implements BoardListener {
+
+	// Size of the board (ex: 8 is 8 x 8)
+	private int size;
+
+	// marked[cell] is true while the cell is waiting to be redrawn
+	private boolean[] marked;
+
+	// The marked cells, in the order they were marked
+	private int[] cells;
+	private int count;
+
+	/**
+	 * Constructs an empty dirty list for a board of the given size.
+	 *
+	 * @param size the board size
+	 */
+	public DirtyCells(int size) {
+		this.size = size;
+		marked = new boolean[size * size];
+		cells = new int[size * size];
+	}
+
+	/**
+	 * Marks a square as needing a redraw.
+	 *
+	 * @param row row index
+	 * @param col column index
+	 */
+	public void mark(int row, int col) {
+		int cell = row * size + col;
+		if (!marked[cell]) {
+			marked[cell] = true;
+			cells[count++] = cell;
+		}
+	}
+
+	/**
+	 * Marks a missed square.
+	 */
+	@Override
+	public void shotMissed(Board board, int row, int col) {
+		mark(row, col);
+	}
+
+	/**
+	 * Marks a hit square.
+	 */
+	@Override
+	public void cellHit(Board board, int row, int col, Ship ship) {
+		mark(row, col);
+	}
+
+	/**
+	 * Marks every square of a sunk ship, since they all change to the
+	 * sunk image.
+	 */
+	@Override
+	public void shipSunk(Board board, int row, int col, Ship ship) {
+		for (int i = 0; i < ship.getLength(); i++) {
+			mark(ship.getSegmentRow(i), ship.getSegmentCol(i));
+		}
+	}
+
+	/**
+	 * Returns how many squares are waiting to be redrawn.
+	 *
+	 * @return the number of dirty squares
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the row of the i-th dirty square.
+	 *
+	 * @param i index from 0 to size() - 1
+	 * @return the row index
+	 */
+	public int getRow(int i) {
+		return cells[i] / size;
+	}
+
+	/**
+	 * Returns the column of the i-th dirty square.
+	 *
+	 * @param i index from 0 to size() - 1
+	 * @return the column index
+	 */
+	public int getCol(int i) {
+		return cells[i] % size;
+	}
+
+	/**
+	 * Empties the list once the squares have been redrawn.
+	 */
+	public void clear() {
+		for (int i = 0; i < count; i++) {
+			marked[cells[i]] = false;
+		}
+		count = 0;
+	}
+}
@@ -0,0 +1,148 @@
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fleet describes the ships each player gets.
+ *
+ * The standard fleet is the classic five ships:
+ * Carrier (5), Battleship (4), Cruiser (3), Submarine (3), Destroyer (2).
+ *
+ * Other fleets can be written as a list of name:length pairs, for
+ * example "Carrier:5,Destroyer:2,Destroyer:2".
+ */
+public class Fleet {
+
+	// Ship names and lengths of the standard fleet
+	private static final String[] STANDARD_NAMES = {"Carrier", "Battleship", "Cruiser", "Submarine", "Destroyer"};
+	private static final int[] STANDARD_LENGTHS = {5, 4, 3, 3, 2};
+
+	// Name and length of each ship in this fleet
+	private String[] names;
+	private int[] lengths;
+
+	/**
+	 * Constructs a fleet from ship names and lengths.
+	 *
+	 * @param names the ship names
+	 * @param lengths the ship lengths, in the same order as names
+	 * @throws IllegalArgumentException if a length is not from 1 to Ship.MAX_LENGTH
+	 */
+	public Fleet(String[] names, int[] lengths) {
+		if (names.length != lengths.length || names.length == 0) {
+			throw new IllegalArgumentException("A fleet needs one length per ship name and at least one ship");
+		}
+		for (int len : lengths) {
+			if (len < 1 || len > Ship.MAX_LENGTH) {
+				throw new IllegalArgumentException("Ship length must be between 1 and " + Ship.MAX_LENGTH + ": " + len);
+			}
+		}
+		this.names = names.clone();
+		this.lengths = lengths.clone();
+	}
+
+	/**
+	 * Returns the classic five ship fleet.
+	 *
+	 * @return the standard fleet
+	 */
+	public static Fleet standard() {
+		return new Fleet(STANDARD_NAMES, STANDARD_LENGTHS);
+	}
+
+	/**
+	 * Reads a fleet written as name:length pairs separated by commas.
+	 *
+	 * @param spec the fleet, ex: "Carrier:5,Destroyer:2"
+	 * @return the fleet
+	 * @throws IllegalArgumentException if the text is not a valid fleet
+	 */
+	public static Fleet parse(String spec) {
+		String[] parts = spec.split(",");
+		String[] names = new String[parts.length];
+		int[] lengths = new int[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			String[] pair = parts[i].trim().split(":");
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Expected name:length but got \"" + parts[i] + "\"");
+			}
+			names[i] = pair[0].trim();
+			try {
+				lengths[i] = Integer.parseInt(pair[1].trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Bad ship length in \"" + parts[i] + "\"", e);
+			}
+		}
+		return new Fleet(names, lengths);
+	}
+
+	/**
+	 * Returns the number of ships in the fleet.
+	 *
+	 * @return the ship count
+	 */
+	public int getShipCount() {
+		return names.length;
+	}
+
+	/**
+	 * Returns the name of the i-th ship.
+	 *
+	 * @param i ship number
+	 * @return the ship's name
+	 */
+	public String getName(int i) {
+		return names[i];
+	}
+
+	/**
+	 * Returns the ship lengths of the fleet.
+	 *
+	 * @return a new array of ship lengths
+	 */
+	public int[] getLengths() {
+		return lengths.clone();
+	}
+
+	/**
+	 * Returns the total number of squares the fleet covers.
+	 *
+	 * @return the sum of the ship lengths
+	 */
+	public int getTotalLength() {
+		int total = 0;
+		for (int len : lengths) {
+			total += len;
+		}
+		return total;
+	}
+
+	/**
+	 * Randomly places all ships of the fleet on a board.
+	 *
+	 * @param board the board to place ships on
+	 * @param rand random generator used for random placement
+	 */
+	public void placeAll(Board board, RandomGenerator rand) {
+		for (int i = 0; i < names.length; i++) {
+			board.placeShipRandom(new Ship(names[i], lengths[i]), rand);
+		}
+	}
+
+	/**
+	 * Returns the fleet in the name:length format read by parse().
+	 *
+	 * @return the fleet as text
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < names.length; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(names[i]).append(':').append(lengths[i]);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,529 @@
+package battleship;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.layout.*;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.control.*;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.geometry.*;
+import javafx.scene.text.*;
+import javafx.animation.PauseTransition;
+
+/**
+ * JavaFX GUI for the Battleship game.
+ * The computer's moves are worked out on a background thread (see
+ * BackgroundAI), so the window stays responsive while it thinks.
+ * This class is responsible for: 
+ * - displaying the game boards
+ * - handling player mouse input 
+ * - controlling turn-based gameplay between the player and the computer
+ * - updating the visuals of the game after each move
+ *
+ * Each StackPane represents one cell on the game board. It holds three
+ * ImageViews that are created once and reused: water, ship and a
+ * hit/miss marker. After a shot only the cells that changed are redrawn.
+ *
+ * Large boards are drawn with a BoardCanvas instead (one Canvas per
+ * board). The renderer can be chosen with --renderer=cells or
+ * --renderer=canvas; by default boards larger than CANVAS_MIN_SIZE
+ * use the canvas.
+ *
+ * The board size and fleet come from GameConfig, so they can be set
+ * with --size=N and --fleet=Name:length,... on the command line.
+ *
+ * The computer's strategy is picked by name with --ai=NAME (see
+ * Strategies); the default is "montecarlo", which samples fleet layouts
+ * on every processor within its own time budget. With
+ * --ai=montecarlo-book the first shots come from the opening book
+ * (opening.book in the working directory, made by OpeningBookGenerator)
+ * if it has a table for the game.
+ *
+ * Engine metrics (GameMetrics) are always available over JMX; with
+ * --metrics=SECONDS they are also printed to the console that often.
+ *
+ * Ship layouts and the computer's moves come from one game seed
+ * (see GameSeeds), printed at startup; --seed=N plays that game again.
+ */
+
+public class GUIDriver extends Application {
+		// Tracks whether the game has ended
+		private boolean gameOver = false;
+		
+		// Board size and fleet, read from the command line in start()
+		private GameConfig config;
+		private int size;
+		
+		// Game boards for the player and computer
+		private Board playerBoard;
+		private Board computerBoard;
+		
+		// Visual grids for both boards
+		private StackPane[][] playerCells;
+		private StackPane[][] computerCells;
+		
+		// Cells of each board that changed since the last redraw, marked
+		// by the boards themselves through BoardListener events
+		private DirtyCells playerDirty;
+		private DirtyCells computerDirty;
+		
+		// Positions of the image layers inside each cell's StackPane
+		// (the water layer is first and never changes)
+		private static final int SHIP_LAYER = 1;
+		private static final int MARK_LAYER = 2;
+		
+		// Width and height of a cell in pixels
+		private static final int CELL_SIZE = 45;
+		
+		// Canvas renderer: used for boards bigger than CANVAS_MIN_SIZE.
+		// The board is scaled to about the same width as an 8x8 cell grid.
+		private static final int CANVAS_MIN_SIZE = 16;
+		private static final double CANVAS_BOARD_PIXELS = 374;
+		private static final double CANVAS_MIN_CELL = 3;
+		private BoardCanvas playerCanvas;
+		private BoardCanvas computerCanvas;
+		
+		// Text shown to the player
+		private Label statusText;
+		
+		// True if it is the player's turn
+		private boolean playerTurn = true;
+		
+		// Seed of this game, from --seed=N (or the clock); printed at
+		// startup so the same layouts and AI moves can be played again
+		private long seed;
+		
+		// Random generator for the computer's shot when the AI runs out of time
+		private SplitMix fallbackRand;
+		
+		// Picks the computer's shots with the strategy chosen by --ai
+		// Runs on a background thread; moves are posted back to the FX thread
+		private BackgroundAI computerAI;
+		
+		// Strategy the computer uses unless --ai=NAME picks another
+		private static final String DEFAULT_AI = "montecarlo";
+		
+		// Longest time the computer may think about one move
+		private static final long AI_TIME_BUDGET_MS = 1000;
+		
+		// Time a searching strategy aims to spend on a move, well inside
+		// AI_TIME_BUDGET_MS so the fallback shot is rarely needed
+		private static final long AI_SEARCH_BUDGET_MS = 250;
+		
+		// Images for ships and cells
+		private Image carrierImg, battleshipImg, cruiserImg, submarineImg, destroyerImg;
+		private Image explosionImg, missImg, sunkImg, waterImg;
+		
+
+		/**
+        * Starts the Battleship game.
+        * Sets up boards and places ships.
+        */
+	
+		@Override
+		public void start(Stage stage) {
+			//Read board size and fleet
+			config = GameConfig.fromNamed(getParameters().getNamed());
+			size = config.getSize();
+			
+			//Publish engine metrics over JMX, and print them if asked
+			GameMetrics.get().register();
+			String metricsSeconds = getParameters().getNamed().get("metrics");
+			if (metricsSeconds != null) {
+				GameMetrics.get().startDump(Long.parseLong(metricsSeconds), System.out);
+			}
+			
+			//Seed every random stream of the game
+			String seedText = getParameters().getNamed().get("seed");
+			seed = seedText != null ? Long.parseLong(seedText) : System.nanoTime();
+			System.out.println("Game seed: " + seed);
+			fallbackRand = GameSeeds.stream(seed, GameSeeds.FALLBACK);
+			
+			//Load images for the game
+			loadImages();	
+			//Initialize boards
+			playerBoard = config.createBoard();
+			computerBoard = config.createBoard();
+			playerDirty = new DirtyCells(size);
+			computerDirty = new DirtyCells(size);
+			playerBoard.addListener(playerDirty);
+			computerBoard.addListener(computerDirty);
+			String aiName = getParameters().getNamed().getOrDefault("ai", DEFAULT_AI);
+			TargetingStrategy strategy = Strategies.create(aiName, config, GameSeeds.stream(seed, GameSeeds.AI));
+			strategy.setTimeBudget(AI_SEARCH_BUDGET_MS);
+			computerAI = new BackgroundAI(strategy, AI_TIME_BUDGET_MS, Platform::runLater);
+			
+			// Randomly place ships on both boards
+			placeAllShips(playerBoard, 0);
+			placeAllShips(computerBoard, 1);
+			
+			// Create board layouts
+			Node playerGrid;
+			Node computerGrid;
+			if (useCanvas()) {
+				double cellSize = Math.max(CANVAS_MIN_CELL, Math.floor(CANVAS_BOARD_PIXELS / size));
+				SpriteAtlas atlas = new SpriteAtlas(cellSize);
+				playerCanvas = new BoardCanvas(playerBoard, atlas, cellSize, true); // player board (show ships)
+				computerCanvas = new BoardCanvas(computerBoard, atlas, cellSize, false); // computer board (clickable)
+				computerCanvas.setOnMouseClicked(e -> {
+					int row = computerCanvas.rowAt(e.getY());
+					int col = computerCanvas.colAt(e.getX());
+					if (row >= 0 && col >= 0) {
+						playerShoots(row, col);
+					}
+				});
+				playerGrid = playerCanvas;
+				computerGrid = computerCanvas;
+			} else {
+				// Initialize visual cell grids
+				playerCells = new StackPane[size][size];
+				computerCells = new StackPane[size][size];
+				playerGrid = createBoardGrid(playerCells, playerBoard, true); // player board (show ships)
+				computerGrid = createBoardGrid(computerCells, computerBoard, false); // computer board (clickable)
+			}
+			
+			// Status text shown below the boards
+			statusText = new Label("Your turn! Click on the computer's board.");
+			statusText.setFont(Font.font("Arial", FontWeight.BOLD, 16));
+			
+			// Player board section
+			VBox playerBox = new VBox(5, new Label("Your Board"), playerGrid);
+			playerBox.setAlignment(Pos.CENTER);
+			
+			// Computer board section
+			VBox computerBox = new VBox(5, new Label("Computer Board"), computerGrid);
+			computerBox.setAlignment(Pos.CENTER);
+			
+			// Place boards side by side
+			HBox boards = new HBox(50, playerBox, computerBox);
+			boards.setAlignment(Pos.CENTER);
+			
+			VBox root = new VBox(20, boards, statusText);
+			root.setAlignment(Pos.CENTER);
+			root.setPadding(new Insets(20));
+			
+			
+			//Initial update to show player's ships
+			if (playerCanvas != null) {
+				playerCanvas.drawAll();
+				computerCanvas.drawAll();
+			} else {
+				updateBoard(playerBoard, playerCells, true);
+				updateBoard(computerBoard, computerCells, false);
+			}
+			
+			// Create and show the scene
+			Scene scene = new Scene(root, 900, 500);
+			stage.setTitle("Battleship: Player vs Computer");
+			stage.setScene(scene);
+			stage.setOnCloseRequest(e -> computerAI.shutdown());
+			stage.show();
+			
+			
+		
+		}
+		
+		/**
+	    * Returns true if the boards should be drawn on a Canvas.
+	    */
+		private boolean useCanvas() {
+			String renderer = getParameters().getNamed().get("renderer");
+			if (renderer == null) {
+				return size > CANVAS_MIN_SIZE;
+			}
+			return renderer.equals("canvas");
+		}
+		
+		/**
+	    * Loads an image from the resources folder.
+	    */
+		private Image loadImage(String filename) {
+			return new Image(getClass().getResourceAsStream("/" + filename));
+		}
+		
+		/**
+		 * Loads all images used in the game.
+	    */
+		private void loadImages() {
+			carrierImg = loadImage("carrier.png");
+			battleshipImg = loadImage("battleship.png");
+			cruiserImg = loadImage("cruiser.png");
+			submarineImg = loadImage("submarine.png");
+			destroyerImg = loadImage("destroyer.png");
+			
+			explosionImg = loadImage("explosion.png");
+			missImg = loadImage("miss.png");
+			sunkImg = loadImage("smoke.gif");
+			waterImg = loadImage("water.png");
+		}
+		
+		/**
+        * Randomly places every ship of the fleet on a board,
+        * using that side's layout stream of the game seed.
+        */
+		private void placeAllShips(Board board, int side) {
+			config.getFleet().placeAll(board, GameSeeds.stream(seed, GameSeeds.LAYOUT + side));
+		}
+			
+		/**
+        * Creates a GridPane representing a Battleship board. 
+        */
+		private GridPane createBoardGrid(StackPane[][] cells, Board board, boolean showShips) {
+			GridPane grid = new GridPane();
+			grid.setHgap(2);
+			grid.setVgap(2);
+
+			for (int r = 0; r < size; r++) {
+				for (int c = 0; c < size; c++) {
+					StackPane cell = new StackPane();
+					cell.setPrefSize(CELL_SIZE, CELL_SIZE);
+					cell.setStyle("-fx-background-color: lightblue; -fx-border-color: black;");
+					
+					// Water, ship and hit/miss layers, reused on every redraw
+					cell.getChildren().addAll(createLayer(waterImg), createLayer(null), createLayer(null));
+					
+					if (!showShips) {
+						final int row = r;
+						final int col = c;
+						cell.setOnMouseClicked(e -> playerShoots(row, col));
+					}
+					
+					cells[r][c] = cell;
+					grid.add(cell,  c,  r);
+				
+			}
+		}
+		return grid;
+		}
+		
+		/**
+        * Creates one image layer of a cell. 
+        */
+		private ImageView createLayer(Image image) {
+			ImageView view = new ImageView(image);
+			view.setFitWidth(CELL_SIZE);
+			view.setFitHeight(CELL_SIZE);
+			return view;
+		}
+			
+		/**
+        * Handles the player's shot on the computer's board. 
+        */
+		private void playerShoots(int row, int col) {
+			
+			if (!playerTurn) return;
+			
+			ShotResult result = computerBoard.fire(row, col);
+			if (computerCanvas != null) {
+				computerCanvas.redrawDirty(computerDirty);
+			} else {
+				redrawDirty(computerBoard, computerCells, computerDirty, false);
+			}
+			
+			if (result == ShotResult.SUNK) {
+				Ship hitShip = computerBoard.getShips().get(computerBoard.getLastShipId());
+				statusText.setText("You sunk the " + hitShip.getName() + "! You get to go again!");
+			} else if (result == ShotResult.HIT) {
+				statusText.setText("You hit a ship! Go again.");
+			} else if (result == ShotResult.MISS) {
+				playerTurn = false;
+				statusText.setText("You missed! Computer's turn...");
+				computerTurnWithDelay();
+			}
+			
+			if (computerBoard.allShipsSunk()) {
+				statusText.setText("You win! All computer ships sunk!");
+				gameOver = true;
+				computerAI.cancel();
+				disableComputerBoard();
+				return;
+			}
+		}
+		
+		/**
+        * Starts the computer's turn after a delay. 
+        */
+		private void computerTurnWithDelay() {
+			PauseTransition pause = new PauseTransition(javafx.util.Duration.seconds(1.5));
+			pause.setOnFinished(e -> computerTurn());
+			pause.play();
+		}
+		
+		/**
+        * Gives the computer an extra delayed shot after a hit or sink. 
+        */
+		private void computerExtraTurn() {
+			PauseTransition pause = new PauseTransition(javafx.util.Duration.seconds((1.5)));
+			pause.setOnFinished(e -> computerTurn());
+			pause.play();
+		}
+		
+		/**
+        * Handles the computer's turn logic.
+        */
+		private void computerTurn() {
+			
+			if (playerTurn || gameOver) return;
+	
+			//Pick the square most likely to hold a ship, off the FX thread
+			computerAI.requestMove(this::randomUntriedSquare,
+					target -> computerShoots(PackedCoord.row(target), PackedCoord.col(target)));
+		}
+		
+		/**
+        * Picks a random square the computer hasn't shot yet.
+        * Used when the AI runs out of thinking time.
+        */
+		private int randomUntriedSquare() {
+			int row, col;
+			do {
+				row = fallbackRand.nextInt(size);
+				col = fallbackRand.nextInt(size);
+			} while (playerBoard.alreadyTried(row, col));
+			return PackedCoord.pack(row, col);
+		}
+		
+		/**
+        * Fires the computer's chosen shot and handles the result.
+        * Runs on the FX thread once the AI has picked a square.
+        */
+		private void computerShoots(int row, int col) {
+				
+				//Shoot
+				ShotResult result = playerBoard.fire(row, col);
+				Ship sunkShip = result == ShotResult.SUNK ? playerBoard.getShips().get(playerBoard.getLastShipId()) : null;
+				computerAI.recordShot(row, col, result, sunkShip);
+				if (playerCanvas != null) {
+					playerCanvas.redrawDirty(playerDirty);
+				} else {
+					redrawDirty(playerBoard, playerCells, playerDirty, true);
+				}
+				
+				//Handle results
+				if (result == ShotResult.HIT) {
+					statusText.setText("Computer hit your ship!");
+					computerExtraTurn();
+				}
+				else if (result == ShotResult.SUNK) {
+					statusText.setText("Computer sunk your " + sunkShip.getName() + "!");
+					
+					if (!playerBoard.allShipsSunk()) {
+						computerExtraTurn();
+					}
+				}
+				else {
+					playerTurn = true;
+					statusText.setText("Your turn!");
+				}
+				
+				//Game over check
+				if (playerBoard.allShipsSunk()) {
+					statusText.setText("Computer wins! All your ships are sunk!");
+					gameOver = true;
+					computerAI.cancel();
+					return;
+				}
+			
+			}
+		
+			
+		
+	/**
+	 * Updates the board visuals based on the game state.
+	 * Redraws every cell; used once when the boards are first shown.
+	 */
+	
+	private void updateBoard(Board board, StackPane[][] cells, boolean showShips) {
+		long start = System.nanoTime();
+		for (int r = 0; r < size; r++) {
+			for (int c = 0; c < size; c++) {
+				drawCell(board, cells[r][c], r, c, showShips);
+			}
+		}
+		GameMetrics.get().recordRedraw(System.nanoTime() - start);
+	}
+	
+	/**
+	 * Redraws only the cells marked dirty, then clears the dirty list.
+	 */
+	private void redrawDirty(Board board, StackPane[][] cells, DirtyCells dirty, boolean showShips) {
+		long start = System.nanoTime();
+		for (int i = 0; i < dirty.size(); i++) {
+			int r = dirty.getRow(i);
+			int c = dirty.getCol(i);
+			drawCell(board, cells[r][c], r, c, showShips);
+		}
+		dirty.clear();
+		GameMetrics.get().recordRedraw(System.nanoTime() - start);
+	}
+	
+	/**
+	 * Sets the images of one cell's layers from the board state.
+	 * The water layer never changes, so only the ship and mark layers are set.
+	 */
+	private void drawCell(Board board, StackPane cell, int r, int c, boolean showShips) {
+		int val = board.getCell(r, c);
+		
+		// Find ship at this coordinate
+		Ship ship = board.getShipAt(r, c);
+		
+		//Ship image
+		Image shipImage = null;
+		if (val == Board.SHIP && showShips && ship != null) {
+			shipImage = getShipImage(ship);
+		}
+		
+		//Hit or miss marker
+		Image markImage = null;
+		if (val == Board.HIT && ship != null) {
+			markImage = ship.isSunk() ? sunkImg : explosionImg;
+		} else if (val == Board.MISS) {
+			markImage = missImg;
+		}
+		
+		((ImageView) cell.getChildren().get(SHIP_LAYER)).setImage(shipImage);
+		((ImageView) cell.getChildren().get(MARK_LAYER)).setImage(markImage);
+	}
+	
+	/**
+	 * Returns the correct ship image based on ship's name
+	 */
+	
+	private Image getShipImage(Ship ship) {
+		switch (ship.getName()) {
+		case "Carrier": return carrierImg;
+		case "Battleship": return battleshipImg;
+		case "Cruiser": return cruiserImg;
+		case "Submarine": return submarineImg;
+		case "Destroyer": return destroyerImg;
+		default: return waterImg;
+		}
+	}
+	
+	/**
+    * Disables the computer board when the game ends.
+    */
+	private void disableComputerBoard() {
+		if (computerCanvas != null) {
+			computerCanvas.setDisable(true);
+			return;
+		}
+		for (int r = 0; r < size; r++) {
+			for (int c = 0; c < size; c++) {
+				computerCells[r][c].setDisable(true);
+			}
+		}
+	}
+	
+	/**
+    * Starts the program. 
+    */
+	public static void main(String[] args) {
+		launch(args);
+
+	}
+
+}
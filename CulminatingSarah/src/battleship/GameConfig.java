@@ -0,0 +1,135 @@
+package battleship;
+
+import java.util.Map;
+
+/**
+ * GameConfig holds the settings chosen when a game starts:
+ * - the board size
+ * - the fleet each player gets
+ * - how the board squares are stored (dense, sparse, or picked by size)
+ *
+ * Settings are read from named parameters such as
+ * --size=12 --fleet=Carrier:5,Destroyer:2 --storage=sparse
+ * and anything left out keeps the classic 8x8, five ship game.
+ *
+ * Games are limited to MAX_SIZE x MAX_SIZE (1024 x 1024), so games
+ * can't use huge sparse boards. The AIs, the GUI and the runners keep
+ * an array entry for every square, and "density" and "montecarlo"
+ * also need the PlacementTables for the board. At 1024 two of each fit
+ * in about 540 MB; at 2048 the tables alone run out of a 1.4 GB heap.
+ * --storage=sparse still works for games up to MAX_SIZE, and a bare
+ * Board (new Board(n)) can be much bigger with sparse storage.
+ */
+public class GameConfig {
+
+	// Largest board size a game can use (see the class comment)
+	public static final int MAX_SIZE = 1 << 10;
+
+	// Board size (ex: 8 is 8 x 8)
+	private int size;
+
+	// Ships placed on each board
+	private Fleet fleet;
+
+	// "dense", "sparse", or null to let Board pick based on size
+	private String storage;
+
+	/**
+	 * Constructs a config with the given size and fleet, and the
+	 * storage picked from the board size.
+	 *
+	 * @param size the board size
+	 * @param fleet the fleet for each player
+	 */
+	public GameConfig(int size, Fleet fleet) {
+		this(size, fleet, null);
+	}
+
+	/**
+	 * Constructs a config.
+	 *
+	 * @param size the board size
+	 * @param fleet the fleet for each player
+	 * @param storage "dense", "sparse", or null to pick from the size
+	 * @throws IllegalArgumentException if the size is over MAX_SIZE or
+	 *         the fleet can't fit on the board
+	 */
+	public GameConfig(int size, Fleet fleet, String storage) {
+		if (size <= 0 || size > MAX_SIZE) {
+			throw new IllegalArgumentException("Board size must be from 1 to " + MAX_SIZE + ": " + size);
+		}
+		for (int len : fleet.getLengths()) {
+			if (len > size) {
+				throw new IllegalArgumentException("A ship of length " + len + " doesn't fit on a " + size + "x" + size + " board");
+			}
+		}
+		if (fleet.getTotalLength() > (long) size * size) {
+			throw new IllegalArgumentException("Fleet " + fleet + " covers more squares than a " + size + "x" + size + " board has");
+		}
+		if (storage != null && !storage.equals("dense") && !storage.equals("sparse")) {
+			throw new IllegalArgumentException("Storage must be dense or sparse: " + storage);
+		}
+		this.size = size;
+		this.fleet = fleet;
+		this.storage = storage;
+	}
+
+	/**
+	 * Returns the classic 8x8 game with the standard fleet.
+	 *
+	 * @return the default config
+	 */
+	public static GameConfig standard() {
+		return new GameConfig(8, Fleet.standard());
+	}
+
+	/**
+	 * Reads a config from named parameters (size, fleet, storage).
+	 *
+	 * @param named parameter names mapped to their values
+	 * @return the config
+	 * @throws IllegalArgumentException if a value is not valid
+	 */
+	public static GameConfig fromNamed(Map<String, String> named) {
+		int size = 8;
+		if (named.containsKey("size")) {
+			try {
+				size = Integer.parseInt(named.get("size"));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Bad board size: " + named.get("size"), e);
+			}
+		}
+		Fleet fleet = named.containsKey("fleet") ? Fleet.parse(named.get("fleet")) : Fleet.standard();
+		return new GameConfig(size, fleet, named.get("storage"));
+	}
+
+	/**
+	 * Returns the board size.
+	 *
+	 * @return the board size
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the fleet each player gets.
+	 *
+	 * @return the fleet
+	 */
+	public Fleet getFleet() {
+		return fleet;
+	}
+
+	/**
+	 * Creates an empty board with this config's size and storage.
+	 *
+	 * @return a new board with no ships
+	 */
+	public Board createBoard() {
+		if (storage == null) {
+			return new Board(size);
+		}
+		return new Board(size, storage.equals("sparse"));
+	}
+}
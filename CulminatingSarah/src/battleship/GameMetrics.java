@@ -0,0 +1,244 @@
+package battleship;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * GameMetrics counts what the game engine does so we can see where
+ * time goes in a running game:
+ * - shots processed (Board.fire)
+ * - random tries per placeShipRandom call, and how often it fell back
+ *   to the full list of legal positions
+ * - how long the AI takes to pick a move
+ * - game length in shots
+ * - how long each board redraw takes in the GUI
+ *
+ * There is one shared instance, get(). Recording only touches a
+ * LongAdder or a Histogram, so it never allocates and threads don't
+ * block each other. The numbers can be read over JMX (register()) or
+ * printed every few seconds (startDump()).
+ */
+public class GameMetrics implements GameMetricsMXBean {
+
+	// JMX name the metrics are registered under
+	public static final String OBJECT_NAME = "battleship:type=GameMetrics";
+
+	// The shared instance
+	private static final GameMetrics INSTANCE = new GameMetrics();
+
+	// Shots fired at any board, and finished games
+	private LongAdder shots = new LongAdder();
+	private LongAdder games = new LongAdder();
+
+	// Random tries per placeShipRandom call, and calls that fell back
+	private Histogram placementRetries = new Histogram("placement tries", "tries");
+	private LongAdder placementFallbacks = new LongAdder();
+
+	// Latencies in nanoseconds, and game length in shots
+	private Histogram aiMoveNanos = new Histogram("AI move", "ns");
+	private Histogram redrawNanos = new Histogram("board redraw", "ns");
+	private Histogram gameLength = new Histogram("game length", "shots");
+
+	// When counting started, for the average shot rate
+	private volatile long startNanos = System.nanoTime();
+
+	// Use get() for the shared instance
+	private GameMetrics() {
+	}
+
+	/**
+	 * Returns the shared metrics.
+	 *
+	 * @return the metrics instance
+	 */
+	public static GameMetrics get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Counts one shot that changed a board (a hit or a miss).
+	 */
+	public void recordShot() {
+		shots.increment();
+	}
+
+	/**
+	 * Records one finished game.
+	 *
+	 * @param shotsToWin shots the winner fired
+	 */
+	public void recordGame(int shotsToWin) {
+		games.increment();
+		gameLength.record(shotsToWin);
+	}
+
+	/**
+	 * Records one placeShipRandom call.
+	 *
+	 * @param tries random positions tried
+	 * @param fellBack true if no try fit and the uniform fallback was used
+	 */
+	public void recordPlacement(int tries, boolean fellBack) {
+		placementRetries.record(tries);
+		if (fellBack) {
+			placementFallbacks.increment();
+		}
+	}
+
+	/**
+	 * Records how long the AI took to pick a move.
+	 *
+	 * @param nanos time in nanoseconds
+	 */
+	public void recordAiMove(long nanos) {
+		aiMoveNanos.record(nanos);
+	}
+
+	/**
+	 * Records how long a board redraw took.
+	 *
+	 * @param nanos time in nanoseconds
+	 */
+	public void recordRedraw(long nanos) {
+		redrawNanos.record(nanos);
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server. Calling it
+	 * again does nothing.
+	 */
+	public void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+		}
+	}
+
+	/**
+	 * Prints the report every few seconds on a background daemon
+	 * thread, with the shot rate over the last period.
+	 *
+	 * @param periodSeconds seconds between reports
+	 * @param out where to print
+	 * @return the scheduler, so the caller can shut it down
+	 */
+	public ScheduledExecutorService startDump(long periodSeconds, PrintStream out) {
+		ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "metrics-dump");
+			t.setDaemon(true);
+			return t;
+		});
+		long[] last = { shots.sum(), System.nanoTime() };
+		timer.scheduleAtFixedRate(() -> {
+			long total = shots.sum();
+			long now = System.nanoTime();
+			double rate = (total - last[0]) * 1e9 / Math.max(1, now - last[1]);
+			last[0] = total;
+			last[1] = now;
+			out.printf("--- metrics (%.0f shots/s in the last %d s) ---%n%s", rate, periodSeconds, getReport());
+		}, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+		return timer;
+	}
+
+	@Override
+	public long getShots() {
+		return shots.sum();
+	}
+
+	@Override
+	public double getShotsPerSecond() {
+		return shots.sum() * 1e9 / Math.max(1, System.nanoTime() - startNanos);
+	}
+
+	@Override
+	public long getGames() {
+		return games.sum();
+	}
+
+	@Override
+	public double getMeanGameLength() {
+		return gameLength.getMean();
+	}
+
+	@Override
+	public long getPlacements() {
+		return placementRetries.getCount();
+	}
+
+	@Override
+	public double getMeanPlacementRetries() {
+		return placementRetries.getMean();
+	}
+
+	@Override
+	public long getPlacementFallbacks() {
+		return placementFallbacks.sum();
+	}
+
+	@Override
+	public long getAiMoves() {
+		return aiMoveNanos.getCount();
+	}
+
+	@Override
+	public double getAiMoveMeanMicros() {
+		return aiMoveNanos.getMean() / 1000;
+	}
+
+	@Override
+	public double getAiMoveP99Micros() {
+		return aiMoveNanos.getPercentile(99) / 1000.0;
+	}
+
+	@Override
+	public long getRedraws() {
+		return redrawNanos.getCount();
+	}
+
+	@Override
+	public double getRedrawMeanMicros() {
+		return redrawNanos.getMean() / 1000;
+	}
+
+	@Override
+	public double getRedrawP99Micros() {
+		return redrawNanos.getPercentile(99) / 1000.0;
+	}
+
+	@Override
+	public String getReport() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-18s %d (%.0f/s since start)%n", "shots", getShots(), getShotsPerSecond()));
+		report.append(String.format("%-18s %d%n", "games", getGames()));
+		report.append(gameLength).append('\n');
+		report.append(placementRetries).append(String.format(", %d fallbacks%n", getPlacementFallbacks()));
+		report.append(aiMoveNanos).append('\n');
+		report.append(redrawNanos).append('\n');
+		return report.toString();
+	}
+
+	@Override
+	public void resetMetrics() {
+		shots.reset();
+		games.reset();
+		placementRetries.reset();
+		placementFallbacks.reset();
+		aiMoveNanos.reset();
+		redrawNanos.reset();
+		gameLength.reset();
+		startNanos = System.nanoTime();
+	}
+}
@@ -0,0 +1,115 @@
+package battleship;
+
+/**
+ * The attributes GameMetrics shows over JMX (for example in JConsole,
+ * under battleship:type=GameMetrics).
+ *
+ * Counts are totals since the program started or since resetMetrics().
+ * Latencies are in microseconds and percentiles are upper bounds from
+ * a Histogram.
+ */
+public interface GameMetricsMXBean {
+
+	/**
+	 * Returns the number of shots that hit or missed.
+	 *
+	 * @return the shot count
+	 */
+	long getShots();
+
+	/**
+	 * Returns the average shot rate since counting started.
+	 *
+	 * @return shots per second
+	 */
+	double getShotsPerSecond();
+
+	/**
+	 * Returns the number of finished headless games.
+	 *
+	 * @return the game count
+	 */
+	long getGames();
+
+	/**
+	 * Returns the mean number of shots the winner needed.
+	 *
+	 * @return the mean game length
+	 */
+	double getMeanGameLength();
+
+	/**
+	 * Returns the number of placeShipRandom calls.
+	 *
+	 * @return the placement count
+	 */
+	long getPlacements();
+
+	/**
+	 * Returns the mean number of random tries per placement.
+	 *
+	 * @return the mean tries
+	 */
+	double getMeanPlacementRetries();
+
+	/**
+	 * Returns how many placements had to list every legal position.
+	 *
+	 * @return the fallback count
+	 */
+	long getPlacementFallbacks();
+
+	/**
+	 * Returns the number of AI moves timed.
+	 *
+	 * @return the move count
+	 */
+	long getAiMoves();
+
+	/**
+	 * Returns the mean time to pick an AI move.
+	 *
+	 * @return microseconds
+	 */
+	double getAiMoveMeanMicros();
+
+	/**
+	 * Returns the 99th percentile time to pick an AI move.
+	 *
+	 * @return microseconds
+	 */
+	double getAiMoveP99Micros();
+
+	/**
+	 * Returns the number of board redraws timed.
+	 *
+	 * @return the redraw count
+	 */
+	long getRedraws();
+
+	/**
+	 * Returns the mean time of a board redraw.
+	 *
+	 * @return microseconds
+	 */
+	double getRedrawMeanMicros();
+
+	/**
+	 * Returns the 99th percentile time of a board redraw.
+	 *
+	 * @return microseconds
+	 */
+	double getRedrawP99Micros();
+
+	/**
+	 * Returns the same text as the periodic dump.
+	 *
+	 * @return the report
+	 */
+	String getReport();
+
+	/**
+	 * Sets every counter and histogram back to zero.
+	 */
+	void resetMetrics();
+}
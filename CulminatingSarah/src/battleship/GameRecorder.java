@@ -0,0 +1,89 @@
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * GameRecorder collects the ShotJournal records of one game in memory.
+ *
+ * HeadlessGame fills it while a game is played, then hands it to
+ * ShotJournal.append() in one piece. The buffer is reused for the next
+ * game and only grows when a game needs more room than any before it.
+ */
+public class GameRecorder {
+
+	// Records of the game so far
+	private ByteBuffer records = newBuffer(4096);
+
+	/**
+	 * Forgets the previous game and writes the GAME record of a new one.
+	 *
+	 * @param size the board size
+	 */
+	public void startGame(int size) {
+		records.clear();
+		put(ShotJournal.GAME, 0, 0, 0, size);
+	}
+
+	/**
+	 * Writes a SHIP record for every ship on a board.
+	 *
+	 * @param side the board index
+	 * @param board the board with its ships placed
+	 */
+	public void layout(int side, Board board) {
+		for (Ship ship : board.getShips()) {
+			put(ShotJournal.SHIP, side, ship.getLength(), ship.isHorizontal() ? ShotJournal.HORIZONTAL : 0,
+					PackedCoord.pack(ship.getRow(), ship.getCol()));
+		}
+	}
+
+	/**
+	 * Writes a SHOT record.
+	 *
+	 * @param side the side that fired (the board index shot at)
+	 * @param target the packed square that was shot
+	 * @param result result of the shot
+	 */
+	public void shot(int side, int target, ShotResult result) {
+		put(ShotJournal.SHOT, side, result.ordinal(), 0, target);
+	}
+
+	/**
+	 * Writes the END record.
+	 *
+	 * @param winner the winning side
+	 * @param shotsToWin how many shots the winner fired
+	 */
+	public void endGame(int winner, int shotsToWin) {
+		put(ShotJournal.END, winner, 0, 0, shotsToWin);
+	}
+
+	/**
+	 * Returns the records written since startGame(), ready to be read.
+	 * Call this once the game is over: nothing more can be recorded
+	 * until the next startGame().
+	 *
+	 * @return the records of the game
+	 */
+	public ByteBuffer getRecords() {
+		records.flip();
+		return records;
+	}
+
+	// Writes one 8-byte record, growing the buffer if it is full
+	private void put(byte type, int side, int extra, int flags, int value) {
+		if (records.remaining() < ShotJournal.RECORD_BYTES) {
+			ByteBuffer bigger = newBuffer(records.capacity() * 2);
+			records.flip();
+			bigger.put(records);
+			records = bigger;
+		}
+		records.put(type).put((byte) side).put((byte) extra).put((byte) flags).putInt(value);
+	}
+
+	// A little endian buffer, matching the file
+	private static ByteBuffer newBuffer(int bytes) {
+		return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
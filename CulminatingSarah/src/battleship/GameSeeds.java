@@ -0,0 +1,65 @@
+package battleship;
+
+/**
+ * GameSeeds turns seeds into the independent random streams a game
+ * uses.
+ *
+ * A run (a Simulator or Tournament batch, or a GUI session) has one
+ * seed. Game number g of the run gets its own seed, gameSeed(run, g),
+ * which does not depend on the thread that plays it. Inside a game,
+ * every use of randomness has its own stream made from the game seed:
+ * - LAYOUT: ship placement on each board
+ * - AI: the strategy of each side (hunting shots and tie-breaks)
+ * - FALLBACK: the GUI's random shot when the AI runs out of time
+ *
+ * So a game can be replayed from its game seed alone, and changing how
+ * much one stream is used (for example a strategy that breaks ties
+ * differently) doesn't change the layouts.
+ */
+public class GameSeeds {
+
+	// Stream numbers; a side's stream is STREAM + side
+	public static final int LAYOUT = 0;
+	public static final int AI = 2;
+	public static final int FALLBACK = 4;
+
+	// Spreads out numbers before they are mixed (the golden ratio, odd)
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+	// Only static methods
+	private GameSeeds() {
+	}
+
+	/**
+	 * Returns the seed of one game of a run.
+	 *
+	 * @param runSeed seed of the whole run
+	 * @param game game number within the run
+	 * @return the game's seed
+	 */
+	public static long gameSeed(long runSeed, long game) {
+		return SplitMix.mix(runSeed + (game + 1) * GOLDEN);
+	}
+
+	/**
+	 * Returns the seed of one stream of a game.
+	 *
+	 * @param gameSeed the game's seed
+	 * @param stream LAYOUT, AI or FALLBACK, plus the side where it applies
+	 * @return the stream's seed
+	 */
+	public static long streamSeed(long gameSeed, int stream) {
+		return SplitMix.mix(SplitMix.mix(gameSeed) + (stream + 1) * GOLDEN);
+	}
+
+	/**
+	 * Creates the generator for one stream of a game.
+	 *
+	 * @param gameSeed the game's seed
+	 * @param stream LAYOUT, AI or FALLBACK, plus the side where it applies
+	 * @return a new generator for that stream
+	 */
+	public static SplitMix stream(long gameSeed, int stream) {
+		return new SplitMix(streamSeed(gameSeed, stream));
+	}
+}
@@ -0,0 +1,258 @@
+package battleship;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * HeadlessGame plays a full game of Battleship with no GUI.
+ *
+ * Both sides are controlled by a TargetingStrategy and the rules
+ * match GUIDriver:
+ * - the player shoots first
+ * - a hit or a sink gives the same side another shot
+ * - a miss passes the turn to the other side
+ * - the first side to sink the whole enemy fleet wins
+ *
+ * There are no timers, so a game runs as fast as the boards allow.
+ *
+ * One HeadlessGame can play many games in a row: restart() takes fresh
+ * boards from a BoardPool and resets both strategies, so back to back
+ * games don't allocate new boards, ships or AI tables.
+ *
+ * With setJournal(), every game played is also appended to a
+ * ShotJournal: the layout of both boards and every shot.
+ *
+ * A game is fully decided by its seed: each board's layout and each
+ * side's strategy get their own stream from GameSeeds, so the same
+ * seed, config and strategies always play the same game.
+ */
+public class HeadlessGame {
+
+	// One move in this many is timed for GameMetrics (a power of two),
+	// so timing doesn't slow the simulation down
+	private static final int TIMING_SAMPLE = 64;
+
+	// Side numbers
+	public static final int PLAYER = 0;
+	public static final int COMPUTER = 1;
+
+	// boards[side] is the board that side shoots at
+	private Board[] boards = new Board[2];
+
+	// Where the boards come from and go back to between games
+	private BoardPool pool;
+
+	// Seed of the game being played
+	private long seed;
+
+	// Random streams for the layout of each board and for each side's
+	// strategy, reseeded for every game
+	private SplitMix[] layoutRands = new SplitMix[2];
+	private SplitMix[] aiRands = new SplitMix[2];
+
+	// ais[side] picks the shots for that side
+	private TargetingStrategy[] ais = new TargetingStrategy[2];
+
+	// Number of shots fired by each side
+	private int[] shots = new int[2];
+
+	// Journal the games are recorded to, or null, and the record of the
+	// game being played
+	private ShotJournal journal;
+	private GameRecorder recorder;
+
+	// Side that won, or -1 while the game is not finished
+	private int winner = -1;
+
+	/**
+	 * Sets up a new game where both sides use a HuntTargetAI.
+	 *
+	 * @param config board size and fleet
+	 * @param seed the game's seed
+	 */
+	public HeadlessGame(GameConfig config, long seed) {
+		this(config, seed, "hunt", "hunt");
+	}
+
+	/**
+	 * Sets up a new game: two boards with the fleet placed randomly
+	 * and the named strategy for each side.
+	 *
+	 * @param config board size and fleet
+	 * @param seed the game's seed
+	 * @param playerStrategy strategy name for the player side
+	 * @param computerStrategy strategy name for the computer side
+	 */
+	public HeadlessGame(GameConfig config, long seed, String playerStrategy, String computerStrategy) {
+		this(config, seed, playerStrategy, computerStrategy, new BoardPool(config, 2));
+	}
+
+	/**
+	 * Sets up a new game using boards from a pool.
+	 *
+	 * @param config board size and fleet
+	 * @param seed the game's seed
+	 * @param playerStrategy strategy name for the player side
+	 * @param computerStrategy strategy name for the computer side
+	 * @param pool pool the boards are taken from (and returned to on restart)
+	 */
+	public HeadlessGame(GameConfig config, long seed, String playerStrategy, String computerStrategy, BoardPool pool) {
+		this.pool = pool;
+		this.seed = seed;
+		for (int side = PLAYER; side <= COMPUTER; side++) {
+			layoutRands[side] = GameSeeds.stream(seed, GameSeeds.LAYOUT + side);
+			aiRands[side] = GameSeeds.stream(seed, GameSeeds.AI + side);
+			boards[side] = pool.acquire(layoutRands[side]);
+		}
+		ais[PLAYER] = TargetingStrategy.create(playerStrategy, config, aiRands[PLAYER]);
+		ais[COMPUTER] = TargetingStrategy.create(computerStrategy, config, aiRands[COMPUTER]);
+	}
+
+	/**
+	 * Gets ready for another game with a new seed: both boards go back
+	 * to the pool, two boards with the new seed's layouts are taken out,
+	 * and both strategies and the shot counts are reset.
+	 *
+	 * @param seed the new game's seed
+	 */
+	public void restart(long seed) {
+		this.seed = seed;
+		for (int side = PLAYER; side <= COMPUTER; side++) {
+			pool.release(boards[side]);
+		}
+		for (int side = PLAYER; side <= COMPUTER; side++) {
+			layoutRands[side].reseed(GameSeeds.streamSeed(seed, GameSeeds.LAYOUT + side));
+			aiRands[side].reseed(GameSeeds.streamSeed(seed, GameSeeds.AI + side));
+			boards[side] = pool.acquire(layoutRands[side]);
+			ais[side].reset();
+			shots[side] = 0;
+		}
+		winner = -1;
+	}
+
+	/**
+	 * Returns the seed of the current game. Playing a new HeadlessGame
+	 * with this seed (and the same config and strategies) repeats the
+	 * game exactly.
+	 *
+	 * @return the game's seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Records every game played from now on to a journal.
+	 *
+	 * @param journal the journal to append to, or null to stop recording
+	 */
+	public void setJournal(ShotJournal journal) {
+		this.journal = journal;
+		if (journal != null && recorder == null) {
+			recorder = new GameRecorder();
+		}
+	}
+
+	/**
+	 * Plays the game until one side has sunk every enemy ship.
+	 *
+	 * @throws UncheckedIOException if the game can't be written to the journal
+	 */
+	public void play() {
+		if (journal != null) {
+			recorder.startGame(boards[PLAYER].getSize());
+			recorder.layout(PLAYER, boards[PLAYER]);
+			recorder.layout(COMPUTER, boards[COMPUTER]);
+		}
+
+		int side = PLAYER;
+		while (winner < 0) {
+			int target;
+			if ((shots[side] & (TIMING_SAMPLE - 1)) == 0) {
+				long start = System.nanoTime();
+				target = ais[side].nextShot();
+				GameMetrics.get().recordAiMove(System.nanoTime() - start);
+			} else {
+				target = ais[side].nextShot();
+			}
+			int row = PackedCoord.row(target);
+			int col = PackedCoord.col(target);
+			Board board = boards[side];
+			ShotResult result = board.fire(row, col);
+			Ship sunk = result == ShotResult.SUNK ? board.getShips().get(board.getLastShipId()) : null;
+			ais[side].recordShot(row, col, result, sunk);
+			shots[side]++;
+			if (journal != null) {
+				recorder.shot(side, target, result);
+			}
+
+			if (result == ShotResult.SUNK && board.allShipsSunk()) {
+				winner = side;
+			} else if (!result.isHit()) {
+				// A miss ends the turn
+				side = 1 - side;
+			}
+		}
+
+		GameMetrics.get().recordGame(shots[winner]);
+
+		if (journal != null) {
+			recorder.endGame(winner, shots[winner]);
+			try {
+				journal.append(recorder);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not write the game to the journal", e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the side that won (PLAYER or COMPUTER), or -1 if the
+	 * game has not been played yet.
+	 *
+	 * @return the winning side
+	 */
+	public int getWinner() {
+		return winner;
+	}
+
+	/**
+	 * Returns how many shots a side fired.
+	 *
+	 * @param side PLAYER or COMPUTER
+	 * @return the number of shots
+	 */
+	public int getShots(int side) {
+		return shots[side];
+	}
+
+	/**
+	 * Returns how many shots the winner needed to sink the enemy fleet.
+	 *
+	 * @return the winner's shot count
+	 */
+	public int getShotsToWin() {
+		return shots[winner];
+	}
+
+	/**
+	 * Replays one game from its seed, for example a game that failed
+	 * in a big Simulator run, and prints how it ended.
+	 *
+	 * Usage: java battleship.HeadlessGame seed [boardSize]
+	 *                                     [playerStrategy] [computerStrategy] [fleet]
+	 */
+	public static void main(String[] args) {
+		long seed = Long.parseLong(args[0]);
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		String playerAI = args.length > 2 ? args[2] : "hunt";
+		String computerAI = args.length > 3 ? args[3] : playerAI;
+		Fleet fleet = args.length > 4 ? Fleet.parse(args[4]) : Fleet.standard();
+
+		HeadlessGame game = new HeadlessGame(new GameConfig(size, fleet), seed, playerAI, computerAI);
+		game.play();
+		System.out.printf("Seed %d: %s won in %d shots (player %d, computer %d)%n", seed,
+				game.getWinner() == PLAYER ? "player" : "computer", game.getShotsToWin(),
+				game.getShots(PLAYER), game.getShots(COMPUTER));
+	}
+}
@@ -0,0 +1,173 @@
+package battleship;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram counts values in fixed buckets.
+ *
+ * Values below 16 each get their own bucket. Larger values are split
+ * into 8 buckets per power of two (16-17, 18-19, ... 32-35, 36-39, ...),
+ * so any long fits and a percentile is never off by more than 12.5%.
+ * Every bucket is a LongAdder created up front:
+ * record() never allocates or locks, and many threads can record into
+ * the same histogram without slowing each other down.
+ */
+public class Histogram {
+
+	// Values below EXACT get a bucket each; above that there are
+	// SUB_BUCKETS buckets per power of two
+	private static final int EXACT = 16;
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int EXACT_BITS = 4;
+	private static final int BUCKETS = EXACT + (63 - EXACT_BITS) * SUB_BUCKETS;
+
+	// Name shown in reports
+	private String name;
+
+	// Unit shown in reports (ex: "ns", "shots")
+	private String unit;
+
+	// Count of values in each bucket
+	private LongAdder[] buckets = new LongAdder[BUCKETS];
+
+	// Total of all values and the largest value
+	private LongAdder sum = new LongAdder();
+	private LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Constructs an empty histogram.
+	 *
+	 * @param name name shown in reports
+	 * @param unit unit of the values, shown in reports
+	 */
+	public Histogram(String name, String unit) {
+		this.name = name;
+		this.unit = unit;
+		for (int b = 0; b < BUCKETS; b++) {
+			buckets[b] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records one value. Negative values are counted as 0.
+	 *
+	 * @param value the value to record
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		buckets[bucketOf(value)].increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Returns how many values have been recorded.
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the mean of the recorded values, or 0 if there are none.
+	 *
+	 * @return the mean
+	 */
+	public double getMean() {
+		long count = getCount();
+		return count == 0 ? 0 : (double) sum.sum() / count;
+	}
+
+	/**
+	 * Returns the largest recorded value.
+	 *
+	 * @return the maximum, or 0 if there are none
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns an upper bound for a percentile: the top of the bucket
+	 * that holds it (never more than the largest value recorded).
+	 *
+	 * @param percent percentile from 0 to 100
+	 * @return the percentile's value, or 0 if nothing was recorded
+	 */
+	public long getPercentile(double percent) {
+		long count = getCount();
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(count * percent / 100.0);
+		long seen = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += buckets[b].sum();
+			if (seen >= Math.max(rank, 1)) {
+				return Math.min(upperBound(b), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Returns the name of the histogram.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns one report line: count, mean, p50, p99 and max.
+	 *
+	 * @return the summary
+	 */
+	@Override
+	public String toString() {
+		return String.format("%-18s count %d, mean %.1f, p50 %d, p99 %d, max %d %s", name, getCount(), getMean(),
+				getPercentile(50), getPercentile(99), getMax(), unit);
+	}
+
+	/**
+	 * Forgets every recorded value.
+	 */
+	public void reset() {
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		sum.reset();
+		max.reset();
+	}
+
+	// Bucket that holds a value (not negative)
+	private static int bucketOf(long value) {
+		if (value < EXACT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return EXACT + (exponent - EXACT_BITS) * SUB_BUCKETS + sub;
+	}
+
+	// Largest value that falls in a bucket
+	private static long upperBound(int bucket) {
+		if (bucket < EXACT) {
+			return bucket;
+		}
+		int exponent = (bucket - EXACT) / SUB_BUCKETS + EXACT_BITS;
+		int sub = (bucket - EXACT) % SUB_BUCKETS;
+		long width = 1L << (exponent - SUB_BITS);
+		return ((SUB_BUCKETS + sub) * width) + width - 1;
+	}
+}
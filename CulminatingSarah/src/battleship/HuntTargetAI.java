@@ -0,0 +1,132 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * HuntTargetAI is the computer's shooting strategy.
+ *
+ * It works in two modes:
+ * - hunt: shoot random squares that have not been tried yet
+ * - target: after a hit, try the squares next to it first
+ *
+ * Once a ship is sunk the queued targets are dropped and the AI goes
+ * back to hunting. It does not use JavaFX, so the same AI is used by
+ * the GUI and by headless simulations.
+ */
+public class HuntTargetAI implements TargetingStrategy {
+
+	// Neighbour offsets, made once instead of on every hit
+	private static final int[][] DIRECTIONS = {
+			{-1, 0}, //up
+			{1, 0}, //down
+			{0, -1}, //left
+			{0, 1} //right
+	};
+
+	// Random tries between checks for an interrupt (a power of two)
+	private static final int INTERRUPT_CHECK = 1 << 10;
+
+	// Size of the board being shot at
+	private int size;
+
+	// Random number generator for hunting shots
+	private RandomGenerator rand;
+
+	// Keeps track of which squares have already been shot at
+	private boolean[][] shots;
+
+	// Squares to try after a hit (packed, each queued at most once)
+	private IntFrontier targetQueue = new IntFrontier();
+
+	/**
+	 * Constructs an AI for a board of the given size.
+	 *
+	 * @param size the board size
+	 * @param rand random generator used for hunting shots
+	 */
+	public HuntTargetAI(int size, RandomGenerator rand) {
+		this.size = size;
+		this.rand = rand;
+		this.shots = new boolean[size][size];
+	}
+
+	/**
+	 * Picks the next square to shoot at.
+	 * Queued targets from a previous hit are used first.
+	 *
+	 * @return the square to shoot at, packed
+	 * @throws IllegalStateException if the thread is interrupted
+	 */
+	@Override
+	public int nextShot() {
+		// If there are target cells from a previous hit, use them first
+		while (!targetQueue.isEmpty()) {
+			int target = targetQueue.poll();
+			if (!shots[PackedCoord.row(target)][PackedCoord.col(target)]) {
+				return target;
+			}
+		}
+
+		// Otherwise shoot randomly (this can take many tries on a big,
+		// nearly finished board, so it stops if the move is cancelled)
+		int row, col;
+		int tries = 0;
+		do {
+			if ((++tries & (INTERRUPT_CHECK - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+				throw new IllegalStateException("Interrupted while picking a shot");
+			}
+			row = rand.nextInt(size);
+			col = rand.nextInt(size);
+		} while (shots[row][col]);
+		return PackedCoord.pack(row, col);
+	}
+
+	/**
+	 * Updates the AI after a shot has been fired.
+	 *
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param result result of the shot
+	 * @param sunk the ship that was sunk (not used by this AI)
+	 */
+	@Override
+	public void recordShot(int row, int col, ShotResult result, Ship sunk) {
+		// Mark this cell as shot
+		shots[row][col] = true;
+
+		if (result == ShotResult.HIT) {
+			addAdjacentTargets(row, col);
+		} else if (result == ShotResult.SUNK) {
+			targetQueue.clear(); // stop targeting once ship is sunk
+		}
+	}
+
+	/**
+	 * Clears the shot history and target queue for a new game.
+	 */
+	@Override
+	public void reset() {
+		for (boolean[] row : shots) {
+			Arrays.fill(row, false);
+		}
+		targetQueue.clear();
+	}
+
+	/**
+	 * Adds nearby squares to try after a hit.
+	 */
+	private void addAdjacentTargets(int row, int col) {
+		for (int[] d : DIRECTIONS) {
+			int newRow = row + d[0];
+			int newCol = col + d[1];
+
+			if (newRow >= 0 && newRow < size &&
+				newCol >= 0 && newCol < size &&
+				!shots[newRow][newCol]) {
+
+				targetQueue.offer(PackedCoord.pack(newRow, newCol));
+			}
+		}
+	}
+}
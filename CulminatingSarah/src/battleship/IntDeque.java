@@ -0,0 +1,120 @@
+package battleship;
+
+import java.util.NoSuchElementException;
+
+/**
+ * IntDeque is a double-ended queue of ints backed by a circular array.
+ *
+ * Adding or removing at either end is O(1) (unlike ArrayList.remove(0),
+ * which shifts every element), and values are stored as plain ints
+ * rather than boxed Integers. The array doubles in size when full.
+ */
+public class IntDeque {
+
+	// Circular buffer; its length is always a power of two
+	private int[] items;
+
+	// Index of the first element and number of elements
+	private int head;
+	private int count;
+
+	/**
+	 * Constructs an empty deque.
+	 */
+	public IntDeque() {
+		items = new int[16];
+	}
+
+	/**
+	 * Adds a value at the back.
+	 *
+	 * @param value the value to add
+	 */
+	public void addLast(int value) {
+		if (count == items.length) {
+			grow();
+		}
+		items[(head + count) & (items.length - 1)] = value;
+		count++;
+	}
+
+	/**
+	 * Adds a value at the front.
+	 *
+	 * @param value the value to add
+	 */
+	public void addFirst(int value) {
+		if (count == items.length) {
+			grow();
+		}
+		head = (head - 1) & (items.length - 1);
+		items[head] = value;
+		count++;
+	}
+
+	/**
+	 * Removes and returns the value at the front.
+	 *
+	 * @return the front value
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	public int pollFirst() {
+		if (count == 0) {
+			throw new NoSuchElementException("IntDeque is empty");
+		}
+		int value = items[head];
+		head = (head + 1) & (items.length - 1);
+		count--;
+		return value;
+	}
+
+	/**
+	 * Removes and returns the value at the back.
+	 *
+	 * @return the back value
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	public int pollLast() {
+		if (count == 0) {
+			throw new NoSuchElementException("IntDeque is empty");
+		}
+		count--;
+		return items[(head + count) & (items.length - 1)];
+	}
+
+	/**
+	 * Returns true if the deque has no values.
+	 *
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Returns the number of values in the deque.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Removes every value (the array is kept for reuse).
+	 */
+	public void clear() {
+		head = 0;
+		count = 0;
+	}
+
+	// Doubles the buffer, moving the values so the front is at index 0
+	private void grow() {
+		int[] bigger = new int[items.length * 2];
+		for (int i = 0; i < count; i++) {
+			bigger[i] = items[(head + i) & (items.length - 1)];
+		}
+		items = bigger;
+		head = 0;
+	}
+}
@@ -0,0 +1,81 @@
+package battleship;
+
+/**
+ * IntFrontier is a first-in first-out queue of packed squares that
+ * never holds the same square twice.
+ *
+ * It pairs an IntDeque (the order) with an IntHashSet (what is queued
+ * right now). Offering a square that is already waiting does nothing,
+ * so an AI can add the neighbours of every hit without checking for
+ * duplicates itself. Once a square is polled it may be offered again.
+ */
+public class IntFrontier {
+
+	// Squares in the order they were offered
+	private IntDeque order = new IntDeque();
+
+	// Squares currently waiting in the queue
+	private IntHashSet queued = new IntHashSet();
+
+	/**
+	 * Adds a square at the back, unless it is already queued.
+	 *
+	 * @param packed the packed square
+	 * @return true if it was added
+	 */
+	public boolean offer(int packed) {
+		if (!queued.add(packed)) {
+			return false;
+		}
+		order.addLast(packed);
+		return true;
+	}
+
+	/**
+	 * Removes and returns the square at the front.
+	 *
+	 * @return the packed square
+	 * @throws java.util.NoSuchElementException if the frontier is empty
+	 */
+	public int poll() {
+		int packed = order.pollFirst();
+		queued.remove(packed);
+		return packed;
+	}
+
+	/**
+	 * Returns true if the square is waiting in the queue.
+	 *
+	 * @param packed the packed square
+	 * @return true if queued
+	 */
+	public boolean contains(int packed) {
+		return queued.contains(packed);
+	}
+
+	/**
+	 * Returns true if no squares are waiting.
+	 *
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return order.isEmpty();
+	}
+
+	/**
+	 * Returns the number of squares waiting.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return order.size();
+	}
+
+	/**
+	 * Removes every square.
+	 */
+	public void clear() {
+		order.clear();
+		queued.clear();
+	}
+}
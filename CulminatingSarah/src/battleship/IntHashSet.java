@@ -0,0 +1,139 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * IntHashSet is a set of ints that stores plain ints, with no boxing.
+ *
+ * It uses open addressing with linear probing. Removing a value shifts
+ * later values in the same probe run back, so no "deleted" markers
+ * are left behind and lookups stay short.
+ */
+public class IntHashSet {
+
+	// Marks an empty slot. The set can't hold this value itself.
+	public static final int NONE = Integer.MIN_VALUE;
+
+	// Hash table; its length is always a power of two
+	private int[] slots;
+	private int count;
+
+	/**
+	 * Constructs an empty set.
+	 */
+	public IntHashSet() {
+		slots = new int[16];
+		Arrays.fill(slots, NONE);
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value to add (must not be NONE)
+	 * @return true if it was added, false if it was already in the set
+	 */
+	public boolean add(int value) {
+		if (value == NONE) {
+			throw new IllegalArgumentException("IntHashSet can't store Integer.MIN_VALUE");
+		}
+		// Keep the table at most half full so probes stay short
+		if (count * 2 >= slots.length) {
+			grow();
+		}
+		int i = indexOf(value);
+		if (slots[i] == value) {
+			return false;
+		}
+		slots[i] = value;
+		count++;
+		return true;
+	}
+
+	/**
+	 * Returns true if the value is in the set.
+	 *
+	 * @param value the value to look for
+	 * @return true if present
+	 */
+	public boolean contains(int value) {
+		return value != NONE && slots[indexOf(value)] == value;
+	}
+
+	/**
+	 * Removes a value.
+	 *
+	 * @param value the value to remove
+	 * @return true if it was in the set
+	 */
+	public boolean remove(int value) {
+		if (value == NONE) {
+			return false;
+		}
+		int mask = slots.length - 1;
+		int hole = indexOf(value);
+		if (slots[hole] != value) {
+			return false;
+		}
+		slots[hole] = NONE;
+		count--;
+
+		// Move later values of the probe run into the hole if they
+		// would otherwise become unreachable
+		for (int i = (hole + 1) & mask; slots[i] != NONE; i = (i + 1) & mask) {
+			int home = hash(slots[i]) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				slots[hole] = slots[i];
+				slots[i] = NONE;
+				hole = i;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of values in the set.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Removes every value (the table is kept for reuse).
+	 */
+	public void clear() {
+		if (count > 0) {
+			Arrays.fill(slots, NONE);
+			count = 0;
+		}
+	}
+
+	// Slot holding the value, or the empty slot where it would go
+	private int indexOf(int value) {
+		int mask = slots.length - 1;
+		int i = hash(value) & mask;
+		while (slots[i] != NONE && slots[i] != value) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	// Doubles the table and re-inserts every value
+	private void grow() {
+		int[] old = slots;
+		slots = new int[old.length * 2];
+		Arrays.fill(slots, NONE);
+		for (int value : old) {
+			if (value != NONE) {
+				slots[indexOf(value)] = value;
+			}
+		}
+	}
+
+	// Mixes the bits so packed squares in the same row spread out
+	private static int hash(int value) {
+		int h = value * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
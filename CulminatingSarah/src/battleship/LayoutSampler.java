@@ -0,0 +1,297 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * LayoutSampler makes random fleet layouts that agree with what an AI
+ * has seen so far, and counts how often each square is covered by a
+ * ship in them. MonteCarloAI gives one sampler to each of its worker
+ * threads.
+ *
+ * A layout places every ship still afloat so that:
+ * - every ship stays on the board and no two ships overlap (the same
+ *   checks as Board.canPlaceShip)
+ * - no ship lies on a miss or on a sunk ship
+ * - no ship lies only on hits (it would already have been sunk)
+ * - every unresolved hit is covered by some ship
+ *
+ * There are two ways to build a layout:
+ * - rejection: every ship goes anywhere it fits, and the layout is
+ *   kept only if it covers every hit. The kept layouts are a fair
+ *   sample, but with many hits almost all of them are thrown away.
+ * - hits first: a ship is put through each hit that isn't covered yet,
+ *   then the other ships go anywhere they fit. Nearly every layout is
+ *   kept, but ships near hits are picked a bit more often than they
+ *   should be.
+ * Any layout that gets stuck (a ship that doesn't fit) is thrown away.
+ *
+ * Positions come from the shared PlacementTables: a random position
+ * is one random placement number, and a position through a hit is a
+ * random entry of the hit square's cover list, so no try lands off the
+ * board. Each check is a few mask ANDs against the blocked, hit and
+ * taken words (one bit per square, like BitGrid).
+ *
+ * The sampler reads the AI's knowledge arrays but never writes them,
+ * and keeps its own scratch arrays, so many samplers can run at once.
+ * Nothing is allocated while sampling.
+ */
+public class LayoutSampler {
+
+	// What the AI knows about each square (see MonteCarloAI)
+	public static final byte UNKNOWN = 0;
+	public static final byte HIT = 1;
+	public static final byte BLOCKED = 2;
+
+	// Random positions tried for one ship before the layout is dropped
+	private static final int PLACE_TRIES = 64;
+
+	// Size of the board
+	private int size;
+
+	// Shared with the AI: squares that are BLOCKED and squares that are
+	// HIT (one bit each), the unresolved hits and the lengths of the
+	// ships afloat
+	private long[] blocked;
+	private long[] hitWords;
+	private int[] hits;
+	private int[] afloat;
+
+	// Placement tables by ship length, fetched when first needed
+	private PlacementTable[] tables;
+
+	// Random generator, reseeded for each chunk of samples
+	private SplitMix rand = new SplitMix(0);
+
+	// Squares taken by a ship of the current layout, one bit each.
+	// Only the words the placed ships touch are cleared between layouts.
+	private long[] taken;
+
+	// Ships placed in the current layout: table and placement number
+	private PlacementTable[] placedTable;
+	private int[] placedIndex;
+	private int placed;
+
+	// used[i] is true once afloat[i] has been placed in the current layout
+	private boolean[] used;
+
+	// How many kept layouts covered each square
+	private int[] counts;
+	private int kept;
+
+	/**
+	 * Constructs a sampler that reads the given knowledge arrays.
+	 *
+	 * @param size board size
+	 * @param blocked BLOCKED squares: bit i of word w is square w * 64 + i
+	 * @param hitWords HIT squares, the same way
+	 * @param hits squares of the unresolved hits (the first hitCount are used)
+	 * @param afloat lengths of the ships afloat (the first afloatCount are used)
+	 */
+	public LayoutSampler(int size, long[] blocked, long[] hitWords, int[] hits, int[] afloat) {
+		this.size = size;
+		this.blocked = blocked;
+		this.hitWords = hitWords;
+		this.hits = hits;
+		this.afloat = afloat;
+		tables = new PlacementTable[size + 1];
+		taken = new long[blocked.length];
+		counts = new int[size * size];
+		placedTable = new PlacementTable[afloat.length];
+		placedIndex = new int[afloat.length];
+		used = new boolean[afloat.length];
+	}
+
+	/**
+	 * Forgets the counts from the last move.
+	 */
+	public void clearCounts() {
+		Arrays.fill(counts, 0);
+		kept = 0;
+	}
+
+	/**
+	 * Tries to make some layouts and adds the ones that work to the
+	 * counts.
+	 *
+	 * @param seed seed for this batch; the same seed and knowledge
+	 *        always give the same layouts
+	 * @param samples number of layouts to try
+	 * @param hitCount number of unresolved hits
+	 * @param afloatCount number of ships afloat
+	 * @param hitsFirst true to build layouts hits first, false for rejection
+	 */
+	public void sample(long seed, int samples, int hitCount, int afloatCount, boolean hitsFirst) {
+		rand.reseed(seed);
+		for (int s = 0; s < samples; s++) {
+			nextLayout();
+			boolean ok = hitsFirst ? coverHits(hitCount, afloatCount) && placeRest(afloatCount)
+					: placeRest(afloatCount) && allHitsCovered(hitCount);
+			if (ok) {
+				for (int i = 0; i < placed; i++) {
+					PlacementTable table = placedTable[i];
+					int p = placedIndex[i];
+					int step = table.getStep(p);
+					for (int j = 0, cell = table.getStart(p); j < table.getLength(); j++, cell += step) {
+						counts[cell]++;
+					}
+				}
+				kept++;
+			}
+		}
+	}
+
+	/**
+	 * Returns how many kept layouts put a ship on each square.
+	 *
+	 * @return the counts, row * size + col (not a copy)
+	 */
+	public int[] getCounts() {
+		return counts;
+	}
+
+	/**
+	 * Returns how many layouts were kept since clearCounts().
+	 *
+	 * @return the number of layouts
+	 */
+	public int getKept() {
+		return kept;
+	}
+
+	// Starts an empty layout, clearing the words of the last one
+	private void nextLayout() {
+		for (int i = 0; i < placed; i++) {
+			PlacementTable table = placedTable[i];
+			int p = placedIndex[i];
+			for (int m = table.getMaskStart(p); m < table.getMaskStart(p + 1); m++) {
+				taken[table.getMaskWord(m)] = 0;
+			}
+		}
+		placed = 0;
+		Arrays.fill(used, false);
+	}
+
+	// True if the square holds a ship in the current layout
+	private boolean isTaken(int cell) {
+		return (taken[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Puts a ship through every hit that isn't covered yet. Returns
+	 * false if some hit can't be covered.
+	 */
+	private boolean coverHits(int hitCount, int afloatCount) {
+		// Start at a random hit so no hit is always handled first
+		int first = hitCount > 1 ? rand.nextInt(hitCount) : 0;
+		for (int h = 0; h < hitCount; h++) {
+			int cell = hits[(first + h) % hitCount];
+			if (isTaken(cell)) {
+				continue;
+			}
+			boolean covered = false;
+			for (int attempt = 0; attempt < PLACE_TRIES && !covered; attempt++) {
+				int i = rand.nextInt(afloatCount);
+				if (used[i]) {
+					continue;
+				}
+				// A random placement of the ship through the hit
+				PlacementTable table = getTable(afloat[i]);
+				int options = table.getCoverCount(cell);
+				if (options == 0) {
+					continue;
+				}
+				int p = table.getCover(cell, rand.nextInt(options));
+				if (canPlaceShip(table, p)) {
+					place(i, table, p);
+					covered = true;
+				}
+			}
+			if (!covered) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// True if every unresolved hit is under a ship of the layout
+	private boolean allHitsCovered(int hitCount) {
+		for (int h = 0; h < hitCount; h++) {
+			if (!isTaken(hits[h])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Places every ship not placed yet at a random free position.
+	 * Returns false if one of them doesn't fit.
+	 */
+	private boolean placeRest(int afloatCount) {
+		int first = rand.nextInt(afloatCount);
+		for (int k = 0; k < afloatCount; k++) {
+			int i = (first + k) % afloatCount;
+			if (used[i]) {
+				continue;
+			}
+			PlacementTable table = getTable(afloat[i]);
+			if (table.getCount() == 0) {
+				return false;
+			}
+			boolean fits = false;
+			for (int attempt = 0; attempt < PLACE_TRIES && !fits; attempt++) {
+				int p = rand.nextInt(table.getCount());
+				if (canPlaceShip(table, p)) {
+					place(i, table, p);
+					fits = true;
+				}
+			}
+			if (!fits) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether a placement can go in the current layout.
+	 *
+	 * The ship must (staying on the board is given by the table):
+	 * - not overlap another ship of the layout
+	 * - not lie on a miss or a sunk ship
+	 * - not lie only on hits
+	 */
+	private boolean canPlaceShip(PlacementTable table, int p) {
+		int hitSquares = 0;
+		for (int m = table.getMaskStart(p); m < table.getMaskStart(p + 1); m++) {
+			int w = table.getMaskWord(m);
+			long bits = table.getMaskBits(m);
+			if (((blocked[w] | taken[w]) & bits) != 0) {
+				return false;
+			}
+			hitSquares += Long.bitCount(hitWords[w] & bits);
+		}
+		return hitSquares < table.getLength();
+	}
+
+	// Adds ship i of afloat to the layout at placement p of its table
+	private void place(int i, PlacementTable table, int p) {
+		table.setAll(taken, p);
+		placedTable[placed] = table;
+		placedIndex[placed] = p;
+		placed++;
+		used[i] = true;
+	}
+
+	// The placement table for a ship length
+	private PlacementTable getTable(int length) {
+		if (length > size) {
+			// Has no placements, so every layout is dropped anyway
+			return PlacementTable.of(size, length);
+		}
+		if (tables[length] == null) {
+			tables[length] = PlacementTable.of(size, length);
+		}
+		return tables[length];
+	}
+}
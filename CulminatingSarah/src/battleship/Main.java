@@ -1,4 +1,4 @@
-import java.util.Random;
+package battleship;
 
 /**
  * The Main class is used to test the Battleship game logic.
@@ -18,8 +18,11 @@ public class Main {
 		// Create an 8x8 Battleship board
 		Board board = new Board(8);
 		
-		// Random object used for ship placement
-		Random rand = new Random();
+		// Random generator used for ship placement
+		// Pass a seed as the first argument to get the same board again
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+		SplitMix rand = new SplitMix(seed);
+		System.out.println("Seed: " + seed);
 		
 		// Place ships randomly on the board
 		board.placeShipRandom(new Ship("Destroyer", 2), rand);
@@ -0,0 +1,505 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * MonteCarloAI shoots where ships are most often found in random
+ * layouts that agree with everything it has seen.
+ *
+ * For each move it makes many fleet layouts with LayoutSampler (the
+ * ships still afloat, kept off misses and sunk ships, covering every
+ * unresolved hit) and fires at the untried square that holds a ship in
+ * the most layouts. Unlike ProbabilityAI, which counts each ship on
+ * its own, the layouts place the whole fleet at once, so ships can't
+ * overlap and every hit has to be explained.
+ *
+ * The layouts are made in chunks of CHUNK_SAMPLES. Chunk c of a move
+ * always uses the same seed (made from the AI's generator), so the
+ * choice only depends on the seed, not on which thread made which
+ * chunk. The calling thread and up to threads - 1 helpers from a
+ * shared pool take chunks until every chunk is done or the time budget
+ * for the move runs out; then the counts are added up. Each thread has
+ * its own LayoutSampler, so nothing is shared while sampling. Under a
+ * Simulator or Tournament the pool is busy with other games' moves; a
+ * helper that hasn't started by the time the calling thread runs out
+ * of chunks is skipped, so a move never waits behind another game.
+ *
+ * Layouts are made by rejection, which gives the fairest sample. With
+ * many hits on the board hardly any of them cover every hit, so if a
+ * move keeps fewer than MIN_KEPT a second round is built hits first
+ * (see LayoutSampler). The few layouts the first round kept are
+ * dropped then, so the counts always come from one way of sampling
+ * and the two biases are never mixed.
+ *
+ * The AI keeps the Zobrist hash of what it has seen (the same hash
+ * Board keeps for the board it is shooting at). The layouts for a move
+ * are seeded from that hash, so a position always gets the same
+ * evaluation: the squares tied for the most layouts. Evaluations are
+ * kept in a TranspositionCache, shared by every AI with the same board
+ * size, fleet and sample count, so a position seen before (openings
+ * repeat all the time over a Simulator run) costs one lookup. Since
+ * the cached answer is the one that would have been worked out, the
+ * cache never changes how a game is played.
+ *
+ * When the time budget cuts a move short, the number of layouts
+ * depends on the machine, so moves can differ between runs (and cut
+ * moves are not cached). The "montecarlo" strategy has no budget, so
+ * Simulator, Tournament and HeadlessGame games are repeatable from
+ * their seed; only the GUI sets one (see setTimeBudget).
+ */
+public class MonteCarloAI implements TargetingStrategy {
+
+	// Layouts per move used by the "montecarlo" strategy
+	public static final int DEFAULT_SAMPLES = 8192;
+
+	// Layouts in one chunk of work
+	public static final int CHUNK_SAMPLES = 256;
+
+	// Evaluations shared by every AI made with the default constructor
+	public static final TranspositionCache<int[]> SHARED_CACHE = new TranspositionCache<>(1 << 16);
+
+	// Layouts a move must keep by rejection before hits first is tried
+	private static final int MIN_KEPT = CHUNK_SAMPLES / 4;
+
+	// Spreads chunk numbers before they are mixed into a seed (odd)
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+	// Helper threads shared by every MonteCarloAI. The calling thread
+	// always samples too, so a busy pool just leaves it more chunks.
+	private static final ExecutorService HELPERS = Executors.newFixedThreadPool(
+			Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+			Thread.ofPlatform().name("montecarlo-", 0).daemon().factory());
+
+	// Size of the board being shot at
+	private int size;
+
+	// Random generator for the move seeds and tie-breaks
+	private RandomGenerator rand;
+
+	// Length of every ship in the enemy fleet
+	private int[] fleetLengths;
+
+	// What is known (read by the samplers, only changed between moves):
+	// state of each square (also kept as BLOCKED and HIT bits for the
+	// samplers' mask checks), unresolved hits, lengths of ships afloat
+	private byte[] state;
+	private long[] blockedWords;
+	private long[] hitWords;
+	private int[] hits;
+	private int hitCount;
+	private int[] afloat;
+	private int afloatCount;
+
+	// Zobrist hash of what has been seen, and what is mixed into it to
+	// make the cache key (the fleet and sample count)
+	private long hash;
+	private long cacheSalt;
+
+	// Where evaluations are cached, or null for none
+	private TranspositionCache<int[]> cache;
+
+	// One sampler per thread; samplers[0] belongs to the calling thread
+	private LayoutSampler[] samplers;
+
+	// Work for the current move
+	private int chunks;
+	private AtomicInteger nextChunk = new AtomicInteger();
+	private long moveSeed;
+	private long deadline;
+	private long budgetNanos;
+
+	// How the current round builds layouts (round 1 is hits first)
+	private boolean hitsFirst;
+	private int round;
+
+	// Set by a thread that stopped because the budget ran out
+	private volatile boolean cutShort;
+
+	// Futures of the helpers working on the current round, and whether
+	// each one has started (or been skipped by the calling thread)
+	private Future<?>[] helpers;
+	private AtomicBoolean[] claims;
+
+	// Layouts kept on the last move
+	private int lastSamples;
+
+	/**
+	 * Constructs an AI with the default layouts per move and no time
+	 * budget, using every processor and SHARED_CACHE.
+	 *
+	 * @param size the board size
+	 * @param fleetLengths length of every ship in the enemy fleet
+	 * @param rand random generator for the layouts and tie-breaks
+	 */
+	public MonteCarloAI(int size, int[] fleetLengths, RandomGenerator rand) {
+		this(size, fleetLengths, rand, DEFAULT_SAMPLES, 0, Runtime.getRuntime().availableProcessors());
+		cache = SHARED_CACHE;
+	}
+
+	/**
+	 * Constructs an AI with no cache (see setCache).
+	 *
+	 * @param size the board size
+	 * @param fleetLengths length of every ship in the enemy fleet
+	 * @param rand random generator for the layouts and tie-breaks
+	 * @param samples layouts to try per move (rounded up to whole chunks)
+	 * @param budgetMillis most time to spend on a move, or 0 for no limit
+	 * @param threads threads to sample with, counting the calling thread
+	 */
+	public MonteCarloAI(int size, int[] fleetLengths, RandomGenerator rand, int samples, long budgetMillis,
+			int threads) {
+		if (samples <= 0 || threads <= 0 || budgetMillis < 0) {
+			throw new IllegalArgumentException("Samples and threads must be positive and the budget not negative");
+		}
+		this.size = size;
+		this.rand = rand;
+		this.fleetLengths = fleetLengths.clone();
+		this.chunks = (samples + CHUNK_SAMPLES - 1) / CHUNK_SAMPLES;
+		this.budgetNanos = budgetMillis * 1_000_000;
+
+		state = new byte[size * size];
+		blockedWords = new long[(size * size + 63) >>> 6];
+		hitWords = new long[blockedWords.length];
+		hits = new int[size * size];
+		afloat = new int[fleetLengths.length];
+		samplers = new LayoutSampler[Math.min(threads, chunks)];
+		for (int t = 0; t < samplers.length; t++) {
+			samplers[t] = new LayoutSampler(size, blockedWords, hitWords, hits, afloat);
+		}
+		helpers = new Future<?>[samplers.length - 1];
+		claims = new AtomicBoolean[helpers.length];
+
+		long salt = chunks;
+		for (int len : fleetLengths) {
+			salt = SplitMix.mix(salt * 31 + len);
+		}
+		cacheSalt = salt;
+		fillTables();
+	}
+
+	/**
+	 * Sets where evaluations are cached. AIs can share a cache even if
+	 * their fleets or sample counts differ, since those are part of the
+	 * key.
+	 *
+	 * @param cache the cache, or null to work out every move
+	 */
+	public void setCache(TranspositionCache<int[]> cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Sets the most time to spend on one move. Moves cut short by it
+	 * depend on the machine, so leave it at 0 for repeatable games.
+	 *
+	 * @param millis time per move in milliseconds, or 0 for no limit
+	 */
+	@Override
+	public void setTimeBudget(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("Time budget can't be negative: " + millis);
+		}
+		budgetNanos = millis * 1_000_000;
+	}
+
+	/**
+	 * Starts a new game, reusing the same arrays.
+	 */
+	@Override
+	public void reset() {
+		fillTables();
+	}
+
+	// Puts the knowledge back to a new game
+	private void fillTables() {
+		Arrays.fill(state, LayoutSampler.UNKNOWN);
+		Arrays.fill(blockedWords, 0L);
+		Arrays.fill(hitWords, 0L);
+		hitCount = 0;
+		System.arraycopy(fleetLengths, 0, afloat, 0, fleetLengths.length);
+		afloatCount = fleetLengths.length;
+		lastSamples = 0;
+		hash = Zobrist.empty(size);
+	}
+
+	/**
+	 * Picks the untried square covered in the most sampled layouts,
+	 * looking the position up in the cache first. Ties are broken
+	 * randomly; if no layout worked, any untried square is picked.
+	 *
+	 * @return the square to shoot at, packed
+	 * @throws IllegalStateException if the thread is interrupted while sampling
+	 */
+	@Override
+	public int nextShot() {
+		long key = hash ^ cacheSalt;
+		int[] best = cache != null ? cache.get(key) : null;
+		if (best != null) {
+			lastSamples = 0;
+		} else {
+			best = bestSquares(sampleLayouts(key));
+			if (cache != null && !cutShort) {
+				cache.put(key, best);
+			}
+		}
+		// Each tied square has the same chance to be picked
+		int cell = best.length == 1 ? best[0] : best[rand.nextInt(best.length)];
+		return PackedCoord.pack(cell / size, cell % size);
+	}
+
+	/**
+	 * Lists the untried squares with the highest count.
+	 */
+	private int[] bestSquares(int[] counts) {
+		int bestCount = -1;
+		int ties = 0;
+		for (int cell = 0; cell < state.length; cell++) {
+			if (state[cell] != LayoutSampler.UNKNOWN) {
+				continue;
+			}
+			if (counts[cell] > bestCount) {
+				bestCount = counts[cell];
+				ties = 1;
+			} else if (counts[cell] == bestCount) {
+				ties++;
+			}
+		}
+		int[] best = new int[ties];
+		int n = 0;
+		for (int cell = 0; cell < state.length && n < ties; cell++) {
+			if (state[cell] == LayoutSampler.UNKNOWN && counts[cell] == bestCount) {
+				best[n++] = cell;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Runs one move's sampling on the calling thread and the helpers,
+	 * and adds up the counts (into the calling thread's sampler). The
+	 * layouts are seeded from the position's cache key.
+	 */
+	private int[] sampleLayouts(long key) {
+		for (LayoutSampler sampler : samplers) {
+			sampler.clearCounts();
+		}
+		moveSeed = SplitMix.mix(key);
+		deadline = System.nanoTime() + budgetNanos;
+		cutShort = false;
+
+		if (afloatCount > 0) {
+			runRound(false);
+			if (keptLayouts() < MIN_KEPT) {
+				// Too many hits for rejection: build the layouts around them
+				// instead, starting the counts over
+				for (LayoutSampler sampler : samplers) {
+					sampler.clearCounts();
+				}
+				runRound(true);
+			}
+		}
+
+		int[] total = samplers[0].getCounts();
+		for (int t = 1; t < samplers.length; t++) {
+			int[] counts = samplers[t].getCounts();
+			for (int cell = 0; cell < total.length; cell++) {
+				total[cell] += counts[cell];
+			}
+		}
+		lastSamples = keptLayouts();
+		return total;
+	}
+
+	/**
+	 * Makes every chunk of one round, on the calling thread and the
+	 * helpers. The first chunk of a round is always made, even after
+	 * the budget has run out, so a move always has some layouts.
+	 */
+	private void runRound(boolean hitsFirst) {
+		this.hitsFirst = hitsFirst;
+		round = hitsFirst ? 1 : 0;
+		nextChunk.set(1);
+		samplers[0].sample(chunkSeed(0), CHUNK_SAMPLES, hitCount, afloatCount, hitsFirst);
+
+		for (int t = 1; t < samplers.length; t++) {
+			LayoutSampler sampler = samplers[t];
+			AtomicBoolean claim = new AtomicBoolean();
+			claims[t - 1] = claim;
+			helpers[t - 1] = HELPERS.submit(() -> {
+				// Does nothing if the calling thread already skipped it
+				if (claim.compareAndSet(false, true)) {
+					work(sampler);
+				}
+			});
+		}
+		work(samplers[0]);
+		if (awaitHelpers()) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while sampling layouts");
+		}
+	}
+
+	// Layouts kept so far this move, over every sampler
+	private int keptLayouts() {
+		int kept = 0;
+		for (LayoutSampler sampler : samplers) {
+			kept += sampler.getKept();
+		}
+		return kept;
+	}
+
+	/**
+	 * Waits until every helper that started has stopped, even if
+	 * interrupted (on an interrupt the helpers are told there is no
+	 * work left, so the wait is short). The samplers can't be reused
+	 * while a helper is still writing to one. A helper still queued is
+	 * claimed here instead, so it won't sample when it does run.
+	 * Returns true if there was an interrupt.
+	 */
+	private boolean awaitHelpers() {
+		boolean interrupted = false;
+		for (int t = 1; t < samplers.length; t++) {
+			if (claims[t - 1].compareAndSet(false, true)) {
+				continue;
+			}
+			while (true) {
+				try {
+					helpers[t - 1].get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					nextChunk.set(chunks);
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("Layout sampling failed", e.getCause());
+				}
+			}
+		}
+		return interrupted;
+	}
+
+	/**
+	 * Takes chunks until there are none left or the budget is used
+	 * up.
+	 */
+	private void work(LayoutSampler sampler) {
+		int chunk;
+		while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+			if (budgetNanos > 0 && System.nanoTime() > deadline) {
+				cutShort = true;
+				return;
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			sampler.sample(chunkSeed(chunk), CHUNK_SAMPLES, hitCount, afloatCount, hitsFirst);
+		}
+	}
+
+	// Seed of one chunk of the current round
+	private long chunkSeed(int chunk) {
+		return SplitMix.mix(moveSeed + (round * chunks + chunk + 1) * GOLDEN);
+	}
+
+	/**
+	 * Updates what is known after a shot.
+	 *
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param result result of the shot
+	 * @param sunk the ship that was sunk when result is SUNK, otherwise null
+	 */
+	@Override
+	public void recordShot(int row, int col, ShotResult result, Ship sunk) {
+		int cell = row * size + col;
+		if (result == ShotResult.MISS) {
+			setState(cell, LayoutSampler.BLOCKED);
+			hash ^= Zobrist.miss(cell);
+		} else if (result == ShotResult.HIT) {
+			setState(cell, LayoutSampler.HIT);
+			hash ^= Zobrist.hit(cell);
+			// Kept sorted, so the layouts don't depend on the order of the shots
+			int h = hitCount++;
+			while (h > 0 && hits[h - 1] > cell) {
+				hits[h] = hits[h - 1];
+				h--;
+			}
+			hits[h] = cell;
+		} else if (result == ShotResult.SUNK) {
+			recordSunk(sunk);
+		}
+	}
+
+	/**
+	 * Blocks a sunk ship's squares, drops them from the unresolved hits
+	 * and takes one ship of its length off the fleet.
+	 */
+	private void recordSunk(Ship sunk) {
+		for (int i = 0; i < sunk.getLength(); i++) {
+			int cell = sunk.getSegmentRow(i) * size + sunk.getSegmentCol(i);
+			// The shot that sank it was never recorded as a hit
+			if (state[cell] == LayoutSampler.HIT) {
+				hash ^= Zobrist.hit(cell);
+			}
+			hash ^= Zobrist.sunk(cell, sunk.getLength());
+			setState(cell, LayoutSampler.BLOCKED);
+		}
+
+		// Keep only the hits that are still unresolved
+		int kept = 0;
+		for (int h = 0; h < hitCount; h++) {
+			if (state[hits[h]] == LayoutSampler.HIT) {
+				hits[kept++] = hits[h];
+			}
+		}
+		hitCount = kept;
+
+		// Keep the others in fleet order, for the same reason as the hits
+		for (int i = 0; i < afloatCount; i++) {
+			if (afloat[i] == sunk.getLength()) {
+				System.arraycopy(afloat, i + 1, afloat, i, afloatCount - i - 1);
+				afloatCount--;
+				return;
+			}
+		}
+		throw new IllegalArgumentException("No ship of length " + sunk.getLength() + " afloat");
+	}
+
+	// Changes a square's state and its bits
+	private void setState(int cell, byte value) {
+		long bit = 1L << cell;
+		state[cell] = value;
+		if (value == LayoutSampler.BLOCKED) {
+			blockedWords[cell >>> 6] |= bit;
+			hitWords[cell >>> 6] &= ~bit;
+		} else if (value == LayoutSampler.HIT) {
+			hitWords[cell >>> 6] |= bit;
+		}
+	}
+
+	/**
+	 * Returns the Zobrist hash of what the AI has seen. It equals
+	 * Board.getZobristHash() of the board being shot at.
+	 *
+	 * @return the hash
+	 */
+	public long getZobristHash() {
+		return hash;
+	}
+
+	/**
+	 * Returns how many layouts were used to pick the last shot.
+	 *
+	 * @return the number of layouts kept on the last move, or 0 if it
+	 *         came from the cache
+	 */
+	public int getLastSamples() {
+		return lastSamples;
+	}
+}
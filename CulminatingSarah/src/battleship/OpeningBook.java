@@ -0,0 +1,260 @@
+package battleship;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * OpeningBook holds precomputed first shots, read straight out of a
+ * memory-mapped file.
+ *
+ * The first shots of a game are always worked out from the same few
+ * positions, so OpeningBookGenerator works them out once, offline, and
+ * writes the answers to a file. A book has one table per board size
+ * and fleet. A table covers the first depth shots of a game that
+ * follows the book: after k shots the position is just the k hit/miss
+ * outcomes, so it is stored as a node of a binary tree.
+ * - node 0 is the empty board
+ * - the child of node n after a miss is 2n + 1, after a hit 2n + 2
+ * - a table has 2^depth - 1 nodes, one packed move each (or NO_MOVE
+ *   where the outcomes can't happen)
+ * A sinking, or any shot not from the book, leaves the book.
+ *
+ * File layout (all numbers little-endian):
+ * - header, 16 bytes: MAGIC, VERSION, table count, 0
+ * - directory, 24 bytes per table: board size (int), depth (int),
+ *   fleet key (long, see fleetKey), offset of the table in the file (long)
+ * - the tables: 4 bytes per node
+ *
+ * Looking up a move is one read from the mapping, with no parsing or
+ * copying. BookAI plays from a book, and the "montecarlo-book"
+ * strategy uses getDefault() when it finds a table for its game (plain
+ * "montecarlo" never reads a book).
+ */
+public class OpeningBook implements AutoCloseable {
+
+	// Header values
+	public static final int MAGIC = 0x4B4F4F42;
+	public static final int VERSION = 1;
+
+	// Sizes of the parts of the file
+	public static final int HEADER_BYTES = 16;
+	public static final int ENTRY_BYTES = 24;
+
+	// Deepest table a book can hold (16M nodes)
+	public static final int MAX_DEPTH = 24;
+
+	// Stored for positions that can't happen
+	public static final int NO_MOVE = -1;
+
+	// File used by getDefault() unless -Dbattleship.book=FILE names
+	// another one (an empty name turns the book off)
+	public static final String DEFAULT_FILE = "opening.book";
+
+	// Spreads out the lengths before they are mixed (odd)
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+	// The book loaded by getDefault(), and whether it was tried yet
+	private static OpeningBook defaultBook;
+	private static boolean defaultLoaded;
+
+	// The book file and its mapping
+	private FileChannel channel;
+	private MappedByteBuffer data;
+
+	// Number of tables in the book
+	private int tableCount;
+
+	/**
+	 * Opens and maps a book file.
+	 *
+	 * @param file the book file
+	 * @throws IOException if the file can't be read or is not a book
+	 */
+	public OpeningBook(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		long bytes = channel.size();
+		if (bytes > Integer.MAX_VALUE) {
+			channel.close();
+			throw new IOException("Opening book too large: " + file);
+		}
+		data = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+		data.order(ByteOrder.LITTLE_ENDIAN);
+
+		if (bytes < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+			channel.close();
+			throw new IOException("Not an opening book (bad header): " + file);
+		}
+		tableCount = data.getInt(8);
+		if (tableCount < 0 || HEADER_BYTES + (long) tableCount * ENTRY_BYTES > bytes) {
+			channel.close();
+			throw new IOException("Opening book directory is damaged: " + file);
+		}
+		for (int t = 0; t < tableCount; t++) {
+			int entry = HEADER_BYTES + t * ENTRY_BYTES;
+			int depth = data.getInt(entry + 4);
+			long offset = data.getLong(entry + 16);
+			if (depth < 1 || depth > MAX_DEPTH || offset < 0 || offset + 4L * nodeCount(depth) > bytes) {
+				channel.close();
+				throw new IOException("Opening book table " + t + " is damaged: " + file);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of tables in the book.
+	 *
+	 * @return the table count
+	 */
+	public int getTableCount() {
+		return tableCount;
+	}
+
+	/**
+	 * Finds the table for a board size and fleet.
+	 *
+	 * @param config board size and fleet
+	 * @return the table index, or -1 if the book has none for them
+	 */
+	public int findTable(GameConfig config) {
+		long key = fleetKey(config.getFleet().getLengths());
+		for (int t = 0; t < tableCount; t++) {
+			if (getSize(t) == config.getSize() && getFleetKey(t) == key) {
+				return t;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the board size of a table.
+	 *
+	 * @param table table index
+	 * @return the board size
+	 */
+	public int getSize(int table) {
+		return data.getInt(entry(table));
+	}
+
+	/**
+	 * Returns how many shots a table covers.
+	 *
+	 * @param table table index
+	 * @return the depth
+	 */
+	public int getDepth(int table) {
+		return data.getInt(entry(table) + 4);
+	}
+
+	/**
+	 * Returns the fleet key of a table.
+	 *
+	 * @param table table index
+	 * @return the fleet key
+	 */
+	public long getFleetKey(int table) {
+		return data.getLong(entry(table) + 8);
+	}
+
+	/**
+	 * Returns the book move for a position.
+	 *
+	 * @param table table index
+	 * @param node position (see the class comment), below 2^depth - 1
+	 * @return the packed square to shoot at, or NO_MOVE
+	 */
+	public int getMove(int table, int node) {
+		return data.getInt((int) getOffset(table) + 4 * node);
+	}
+
+	/**
+	 * Closes the file. The mapping stays readable until it is garbage
+	 * collected.
+	 *
+	 * @throws IOException if closing fails
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Returns the number of nodes in a table of the given depth.
+	 *
+	 * @param depth shots covered by the table
+	 * @return 2^depth - 1
+	 */
+	public static int nodeCount(int depth) {
+		return (1 << depth) - 1;
+	}
+
+	/**
+	 * Returns a key for a fleet: the same for any order of the same
+	 * ship lengths.
+	 *
+	 * @param lengths every ship length of the fleet
+	 * @return the key
+	 */
+	public static long fleetKey(int[] lengths) {
+		int[] sorted = lengths.clone();
+		Arrays.sort(sorted);
+		long key = sorted.length;
+		for (int len : sorted) {
+			key = SplitMix.mix(key + len * GOLDEN);
+		}
+		return key;
+	}
+
+	/**
+	 * Returns the book named by -Dbattleship.book (or DEFAULT_FILE in
+	 * the working directory), mapped the first time it is asked for.
+	 *
+	 * @return the book, or null if there is no book file
+	 * @throws UncheckedIOException if the file is there but can't be read
+	 */
+	public static synchronized OpeningBook getDefault() {
+		if (!defaultLoaded) {
+			defaultLoaded = true;
+			String name = System.getProperty("battleship.book", DEFAULT_FILE);
+			if (!name.isEmpty() && Files.exists(Paths.get(name))) {
+				try {
+					defaultBook = new OpeningBook(Paths.get(name));
+				} catch (IOException e) {
+					throw new UncheckedIOException("Could not read the opening book", e);
+				}
+			}
+		}
+		return defaultBook;
+	}
+
+	/**
+	 * Puts a strategy behind the default book if it has a table for the
+	 * game, so the first shots come from the book.
+	 *
+	 * @param strategy plays once the game leaves the book
+	 * @param config board size and fleet of the game
+	 * @return a BookAI, or the strategy itself if there is no table
+	 */
+	public static TargetingStrategy wrap(TargetingStrategy strategy, GameConfig config) {
+		OpeningBook book = getDefault();
+		int table = book == null ? -1 : book.findTable(config);
+		return table < 0 ? strategy : new BookAI(strategy, book, table);
+	}
+
+	// Position of a table's directory entry
+	private int entry(int table) {
+		return HEADER_BYTES + table * ENTRY_BYTES;
+	}
+
+	// Position of a table in the file
+	private long getOffset(int table) {
+		return data.getLong(entry(table) + 16);
+	}
+}
@@ -0,0 +1,156 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * OpeningBookGenerator works out the opening book offline and writes
+ * it to a file (see OpeningBook for the layout).
+ *
+ * Each position of a table is evaluated with a MonteCarloAI that uses
+ * many more layouts than a game can afford and no time budget, after
+ * replaying the book moves and outcomes that lead to it. Positions
+ * where no layout fits the outcomes get NO_MOVE, and so does
+ * everything after them. Ties are broken with a generator seeded from
+ * the position, so the same arguments always write the same file.
+ *
+ * Usage: java battleship.OpeningBookGenerator [file] [depth] [samples]
+ *                                             [size or size/fleet ...]
+ *
+ * Defaults: opening.book, depth 10, 65536 layouts per position, and
+ * tables for 8x8 and 10x10 boards with the standard fleet.
+ */
+public class OpeningBookGenerator {
+
+	// Only static methods
+	private OpeningBookGenerator() {
+	}
+
+	/**
+	 * Works out one table.
+	 *
+	 * @param config board size and fleet
+	 * @param depth number of shots the table covers
+	 * @param samples layouts per position
+	 * @return the packed move of every node (NO_MOVE where none)
+	 */
+	public static int[] buildTable(GameConfig config, int depth, int samples) {
+		if (depth < 1 || depth > OpeningBook.MAX_DEPTH) {
+			throw new IllegalArgumentException("Book depth must be from 1 to " + OpeningBook.MAX_DEPTH + ": " + depth);
+		}
+		int[] moves = new int[OpeningBook.nodeCount(depth)];
+		SplitMix rand = new SplitMix(0);
+		MonteCarloAI ai = new MonteCarloAI(config.getSize(), config.getFleet().getLengths(), rand, samples, 0,
+				Runtime.getRuntime().availableProcessors());
+		int[] path = new int[depth];
+
+		for (int node = 0; node < moves.length; node++) {
+			if (node > 0 && moves[(node - 1) / 2] == OpeningBook.NO_MOVE) {
+				moves[node] = OpeningBook.NO_MOVE;
+				continue;
+			}
+
+			// Nodes from here up to (not including) the root
+			int level = 0;
+			for (int n = node; n > 0; n = (n - 1) / 2) {
+				path[level++] = n;
+			}
+
+			// Replay the book from the root
+			ai.reset();
+			for (int i = level - 1; i >= 0; i--) {
+				int child = path[i];
+				int move = moves[(child - 1) / 2];
+				ShotResult result = child % 2 == 0 ? ShotResult.HIT : ShotResult.MISS;
+				ai.recordShot(PackedCoord.row(move), PackedCoord.col(move), result, null);
+			}
+
+			rand.reseed(node);
+			int move = ai.nextShot();
+			moves[node] = ai.getLastSamples() > 0 ? move : OpeningBook.NO_MOVE;
+		}
+		return moves;
+	}
+
+	/**
+	 * Writes a book file.
+	 *
+	 * @param file the file to write (replaced if it exists)
+	 * @param configs board size and fleet of each table
+	 * @param depths depth of each table
+	 * @param tables the tables, from buildTable
+	 * @throws IOException if the file can't be written
+	 */
+	public static void write(Path file, List<GameConfig> configs, int[] depths, List<int[]> tables) throws IOException {
+		int count = tables.size();
+		long bytes = OpeningBook.HEADER_BYTES + (long) count * OpeningBook.ENTRY_BYTES;
+		for (int[] table : tables) {
+			bytes += 4L * table.length;
+		}
+		if (bytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Opening book too large: " + bytes + " bytes");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(count).putInt(0);
+		long offset = OpeningBook.HEADER_BYTES + (long) count * OpeningBook.ENTRY_BYTES;
+		for (int t = 0; t < count; t++) {
+			GameConfig config = configs.get(t);
+			buffer.putInt(config.getSize());
+			buffer.putInt(depths[t]);
+			buffer.putLong(OpeningBook.fleetKey(config.getFleet().getLengths()));
+			buffer.putLong(offset);
+			offset += 4L * tables.get(t).length;
+		}
+		for (int[] table : tables) {
+			for (int move : table) {
+				buffer.putInt(move);
+			}
+		}
+		buffer.flip();
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Builds a book from the command line.
+	 */
+	public static void main(String[] args) throws IOException {
+		Path file = Paths.get(args.length > 0 ? args[0] : OpeningBook.DEFAULT_FILE);
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int samples = args.length > 2 ? Integer.parseInt(args[2]) : 65536;
+		String[] specs = args.length > 3 ? Arrays.copyOfRange(args, 3, args.length) : new String[] { "8", "10" };
+
+		List<GameConfig> configs = new ArrayList<>();
+		List<int[]> tables = new ArrayList<>();
+		int[] depths = new int[specs.length];
+		for (int t = 0; t < specs.length; t++) {
+			// "size" or "size/fleet"
+			String[] parts = specs[t].split("/", 2);
+			Fleet fleet = parts.length > 1 ? Fleet.parse(parts[1]) : Fleet.standard();
+			GameConfig config = new GameConfig(Integer.parseInt(parts[0]), fleet);
+
+			long start = System.nanoTime();
+			configs.add(config);
+			tables.add(buildTable(config, depth, samples));
+			depths[t] = depth;
+			System.out.printf("%dx%d %s: %d positions in %.1f s%n", config.getSize(), config.getSize(), fleet,
+					OpeningBook.nodeCount(depth), (System.nanoTime() - start) / 1e9);
+		}
+		write(file, configs, depths, tables);
+		System.out.println("Wrote " + file);
+	}
+}
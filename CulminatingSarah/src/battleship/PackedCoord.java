@@ -0,0 +1,62 @@
+package battleship;
+
+/**
+ * PackedCoord stores a row and a column together in one int, so the
+ * AI can keep squares in primitive int collections instead of creating
+ * a Coordinate object for each one.
+ *
+ * The row is kept in the high 16 bits and the column in the low 16
+ * bits, which works for boards up to MAX_SIZE x MAX_SIZE. Games are
+ * limited to GameConfig.MAX_SIZE (1024), well inside that, so every
+ * square of a game can be packed.
+ */
+public class PackedCoord {
+
+	// Largest board size whose squares fit in a packed int
+	public static final int MAX_SIZE = 1 << 16;
+
+	// Not meant to be created; all methods are static
+	private PackedCoord() {
+	}
+
+	/**
+	 * Packs a row and column into one int.
+	 *
+	 * @param row row index (0 to MAX_SIZE - 1)
+	 * @param col column index (0 to MAX_SIZE - 1)
+	 * @return the packed square
+	 */
+	public static int pack(int row, int col) {
+		return (row << 16) | col;
+	}
+
+	/**
+	 * Returns the row of a packed square.
+	 *
+	 * @param packed the packed square
+	 * @return the row index
+	 */
+	public static int row(int packed) {
+		return packed >>> 16;
+	}
+
+	/**
+	 * Returns the column of a packed square.
+	 *
+	 * @param packed the packed square
+	 * @return the column index
+	 */
+	public static int col(int packed) {
+		return packed & 0xFFFF;
+	}
+
+	/**
+	 * Converts a packed square to a Coordinate (for display or logging).
+	 *
+	 * @param packed the packed square
+	 * @return a new Coordinate
+	 */
+	public static Coordinate toCoordinate(int packed) {
+		return new Coordinate(row(packed), col(packed));
+	}
+}
@@ -0,0 +1,300 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlacementTable lists every way a ship of one length can lie on a
+ * board of one size, worked out once and shared.
+ *
+ * A placement is a start square plus a direction. Placements are
+ * numbered horizontal ones first (row by row), then vertical ones
+ * (column by column), the same order Board scans them in; a length 1
+ * ship only has the horizontal ones. For each
+ * placement the table holds:
+ * - its start square and step (1 across, size down)
+ * - its squares as bitmasks over the 64-square words that BitGrid uses,
+ *   so "is this placement free?" is one AND per word it touches
+ *   (usually one or two) instead of a loop over squares
+ * And for each square, the placements that cover it.
+ *
+ * Tables never change after they are built, so any number of threads
+ * can read the same one. of() keeps one table per (size, length) and
+ * every ProbabilityAI and LayoutSampler of that size uses it, so a
+ * game with many AIs and threads still builds each table once. A table
+ * takes about (length + 5) ints per placement (about 90 MB for a
+ * length 5 ship on a 1024 x 1024 board), which is what limits
+ * GameConfig.MAX_SIZE. Board only uses them up to
+ * Board.MAX_TABLE_SQUARES and scans runs of free squares past that.
+ */
+public class PlacementTable {
+
+	// Tables by size and length, see key()
+	private static final ConcurrentHashMap<Long, PlacementTable> TABLES = new ConcurrentHashMap<>();
+
+	// Board size and ship length
+	private int size;
+	private int length;
+
+	// Number of horizontal placements, and of all placements
+	private int horizontalCount;
+	private int count;
+
+	// Start square of each placement
+	private int[] start;
+
+	// Masks of placement p: maskWord[i] and maskBits[i] for
+	// i = maskStart[p] .. maskStart[p + 1] - 1
+	private int[] maskStart;
+	private int[] maskWord;
+	private long[] maskBits;
+
+	// Placements covering each square:
+	// cover[coverStart[cell] .. coverStart[cell + 1])
+	private int[] coverStart;
+	private int[] cover;
+
+	/**
+	 * Returns the table for a board size and ship length, building it
+	 * the first time. Every caller gets the same table.
+	 *
+	 * @param size the board size
+	 * @param length the ship length
+	 * @return the table
+	 */
+	public static PlacementTable of(int size, int length) {
+		return TABLES.computeIfAbsent(key(size, length), k -> new PlacementTable(size, length));
+	}
+
+	/**
+	 * Builds a table. Use of() to get the shared one.
+	 *
+	 * @param size the board size
+	 * @param length the ship length
+	 */
+	private PlacementTable(int size, int length) {
+		if (size <= 0 || length <= 0 || (long) size * size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Bad board size or ship length: " + size + ", " + length);
+		}
+		this.size = size;
+		this.length = length;
+		int fit = Math.max(0, size - length + 1);
+		horizontalCount = size * fit;
+		count = length == 1 ? horizontalCount : 2 * horizontalCount;
+
+		start = new int[count];
+		maskStart = new int[count + 1];
+		int cells = size * size;
+		int[] coverCount = new int[cells + 1];
+
+		// Starts, and how many words each placement touches
+		int words = 0;
+		for (int p = 0; p < count; p++) {
+			boolean horizontal = p < horizontalCount;
+			int q = horizontal ? p : p - horizontalCount;
+			int row = horizontal ? q / fit : q % fit;
+			int col = horizontal ? q % fit : q / fit;
+			start[p] = row * size + col;
+			maskStart[p] = words;
+			int lastWord = -1;
+			for (int i = 0, cell = start[p]; i < length; i++, cell += getStep(p)) {
+				if (cell >>> 6 != lastWord) {
+					lastWord = cell >>> 6;
+					words++;
+				}
+				coverCount[cell + 1]++;
+			}
+		}
+		maskStart[count] = words;
+
+		// The masks
+		maskWord = new int[words];
+		maskBits = new long[words];
+		for (int p = 0; p < count; p++) {
+			int w = maskStart[p] - 1;
+			int lastWord = -1;
+			for (int i = 0, cell = start[p]; i < length; i++, cell += getStep(p)) {
+				if (cell >>> 6 != lastWord) {
+					lastWord = cell >>> 6;
+					maskWord[++w] = lastWord;
+				}
+				maskBits[w] |= 1L << cell;
+			}
+		}
+
+		// Turn the counts into start offsets, then fill in the lists
+		coverStart = coverCount;
+		for (int cell = 0; cell < cells; cell++) {
+			coverStart[cell + 1] += coverStart[cell];
+		}
+		cover = new int[coverStart[cells]];
+		int[] next = Arrays.copyOf(coverStart, cells);
+		for (int p = 0; p < count; p++) {
+			for (int i = 0, cell = start[p]; i < length; i++, cell += getStep(p)) {
+				cover[next[cell]++] = p;
+			}
+		}
+	}
+
+	/**
+	 * Returns the board size.
+	 *
+	 * @return the size
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the ship length.
+	 *
+	 * @return the length
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the number of placements.
+	 *
+	 * @return the placement count (0 if the ship is longer than the board)
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of a placement.
+	 *
+	 * @param row row of the first square
+	 * @param col column of the first square
+	 * @param horizontal true if the ship runs along the row
+	 * @return the placement, or -1 if the ship would leave the board
+	 */
+	public int indexOf(int row, int col, boolean horizontal) {
+		int fit = size - length + 1;
+		if (horizontal || length == 1) {
+			return row >= 0 && row < size && col >= 0 && col < fit ? row * fit + col : -1;
+		}
+		return row >= 0 && row < fit && col >= 0 && col < size ? horizontalCount + col * fit + row : -1;
+	}
+
+	/**
+	 * Returns the first square of a placement.
+	 *
+	 * @param p the placement
+	 * @return the square, row * size + col
+	 */
+	public int getStart(int p) {
+		return start[p];
+	}
+
+	/**
+	 * Returns the distance between neighbouring squares of a placement.
+	 *
+	 * @param p the placement
+	 * @return 1 for horizontal, size for vertical
+	 */
+	public int getStep(int p) {
+		return p < horizontalCount ? 1 : size;
+	}
+
+	/**
+	 * Returns true if a placement runs along a row.
+	 *
+	 * @param p the placement
+	 * @return true if horizontal
+	 */
+	public boolean isHorizontal(int p) {
+		return p < horizontalCount;
+	}
+
+	/**
+	 * Returns the row of a placement's first square.
+	 *
+	 * @param p the placement
+	 * @return the row
+	 */
+	public int getRow(int p) {
+		return start[p] / size;
+	}
+
+	/**
+	 * Returns the column of a placement's first square.
+	 *
+	 * @param p the placement
+	 * @return the column
+	 */
+	public int getCol(int p) {
+		return start[p] % size;
+	}
+
+	/**
+	 * Returns the first mask of a placement; its masks are
+	 * getMaskStart(p) up to getMaskStart(p + 1) - 1.
+	 *
+	 * @param p the placement (count is allowed, for the end)
+	 * @return index of the first mask
+	 */
+	public int getMaskStart(int p) {
+		return maskStart[p];
+	}
+
+	/**
+	 * Returns which 64-square word a mask belongs to.
+	 *
+	 * @param i mask index
+	 * @return the word index
+	 */
+	public int getMaskWord(int i) {
+		return maskWord[i];
+	}
+
+	/**
+	 * Returns the bits of a mask.
+	 *
+	 * @param i mask index
+	 * @return the squares of the placement in that word
+	 */
+	public long getMaskBits(int i) {
+		return maskBits[i];
+	}
+
+	/**
+	 * Sets the squares of a placement in the words.
+	 *
+	 * @param words one bit per square
+	 * @param p the placement
+	 */
+	public void setAll(long[] words, int p) {
+		for (int i = maskStart[p]; i < maskStart[p + 1]; i++) {
+			words[maskWord[i]] |= maskBits[i];
+		}
+	}
+
+	/**
+	 * Returns how many placements cover a square.
+	 *
+	 * @param cell the square, row * size + col
+	 * @return the number of placements
+	 */
+	public int getCoverCount(int cell) {
+		return coverStart[cell + 1] - coverStart[cell];
+	}
+
+	/**
+	 * Returns one of the placements covering a square.
+	 *
+	 * @param cell the square, row * size + col
+	 * @param i which one, from 0 to getCoverCount(cell) - 1
+	 * @return the placement
+	 */
+	public int getCover(int cell, int i) {
+		return cover[coverStart[cell] + i];
+	}
+
+	// Key of a table in TABLES
+	private static Long key(int size, int length) {
+		return ((long) size << 32) | length;
+	}
+}
@@ -0,0 +1,264 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * ProbabilityAI shoots where ships are most likely to be.
+ *
+ * A "placement" is one way a ship of some length could lie on the
+ * board (a start square plus a direction). For every square the AI
+ * keeps a heat value: the number of placements of the ships still
+ * afloat that cover the square and are still possible.
+ *
+ * A placement stops being possible when one of its squares is a miss
+ * or belongs to a sunk ship. Placements that cover unresolved hits
+ * also feed a second "target" heat map, weighted by how many hits they
+ * cover, so the AI finishes off ships it has found.
+ *
+ * The maps are never recounted from scratch. After each shot only the
+ * placements through the shot square (or through the sunk ship) are
+ * updated, and each update touches just the squares of that placement.
+ * The placements themselves come from the shared PlacementTables, so
+ * making an AI only allocates the per-game state.
+ */
+public class ProbabilityAI implements TargetingStrategy {
+
+	// Size of the board being shot at
+	private int size;
+
+	// Random number generator used to break ties between equal squares
+	private RandomGenerator rand;
+
+	// Every distinct ship length in the fleet, how many ships of that
+	// length the fleet has, and how many of them are still afloat
+	private int[] lengths;
+	private int[] fleetCounts;
+	private int[] remaining;
+
+	// Placements of lengths[k] are placement p of tables[k]; below they
+	// are numbered lengthStart[k] + p, for the per-placement arrays
+	private PlacementTable[] tables;
+	private int[] lengthStart;
+	private boolean[] alive;
+	private int[] hitsCovered;
+
+	// Heat maps (see class comment)
+	private int[] heat;
+	private int[] targetHeat;
+
+	// Squares that have already been shot
+	private boolean[] tried;
+
+	/**
+	 * Constructs an AI for a board of the given size and fleet.
+	 *
+	 * @param size the board size
+	 * @param fleetLengths length of every ship in the enemy fleet
+	 * @param rand random generator used to break ties
+	 */
+	public ProbabilityAI(int size, int[] fleetLengths, RandomGenerator rand) {
+		this.size = size;
+		this.rand = rand;
+		countLengths(fleetLengths);
+
+		// Number the placements of every length one after another
+		tables = new PlacementTable[lengths.length];
+		lengthStart = new int[lengths.length + 1];
+		for (int k = 0; k < lengths.length; k++) {
+			tables[k] = PlacementTable.of(size, lengths[k]);
+			lengthStart[k + 1] = lengthStart[k] + tables[k].getCount();
+		}
+
+		int cells = size * size;
+		heat = new int[cells];
+		targetHeat = new int[cells];
+		tried = new boolean[cells];
+		hitsCovered = new int[lengthStart[lengths.length]];
+		alive = new boolean[hitsCovered.length];
+		remaining = new int[lengths.length];
+		fillTables();
+	}
+
+	/**
+	 * Starts a new game: every placement is possible again and the heat
+	 * maps are rebuilt, reusing the same arrays.
+	 */
+	@Override
+	public void reset() {
+		fillTables();
+	}
+
+	// Puts the fleet counts, placements and heat back to a new game
+	private void fillTables() {
+		System.arraycopy(fleetCounts, 0, remaining, 0, fleetCounts.length);
+		Arrays.fill(heat, 0);
+		Arrays.fill(targetHeat, 0);
+		Arrays.fill(tried, false);
+		Arrays.fill(hitsCovered, 0);
+
+		// Every placement starts out possible
+		for (int k = 0; k < lengths.length; k++) {
+			for (int p = lengthStart[k]; p < lengthStart[k + 1]; p++) {
+				alive[p] = true;
+				addToCells(heat, k, p, remaining[k]);
+			}
+		}
+	}
+
+	/**
+	 * Picks the untried square with the highest target heat, or the
+	 * highest heat if no unresolved hit is left. Ties are broken
+	 * randomly.
+	 *
+	 * @return the square to shoot at, packed
+	 * @throws IllegalStateException if the thread is interrupted
+	 */
+	@Override
+	public int nextShot() {
+		int best = -1;
+		int bestTarget = -1;
+		int bestHeat = -1;
+		int ties = 0;
+
+		for (int cell = 0; cell < tried.length; cell++) {
+			// Check now and then whether the move was cancelled
+			if ((cell & 1023) == 0 && Thread.currentThread().isInterrupted()) {
+				throw new IllegalStateException("Interrupted while picking a shot");
+			}
+			if (tried[cell]) {
+				continue;
+			}
+			int t = targetHeat[cell];
+			int h = heat[cell];
+			if (t > bestTarget || (t == bestTarget && h > bestHeat)) {
+				best = cell;
+				bestTarget = t;
+				bestHeat = h;
+				ties = 1;
+			} else if (t == bestTarget && h == bestHeat && rand.nextInt(++ties) == 0) {
+				// Each tied square has the same chance to be picked
+				best = cell;
+			}
+		}
+		return PackedCoord.pack(best / size, best % size);
+	}
+
+	/**
+	 * Updates the heat maps after a shot.
+	 *
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param result result of the shot
+	 * @param sunk the ship that was sunk when result is SUNK, otherwise null
+	 */
+	@Override
+	public void recordShot(int row, int col, ShotResult result, Ship sunk) {
+		int cell = row * size + col;
+		tried[cell] = true;
+
+		if (result == ShotResult.MISS) {
+			// No ship can lie across a miss
+			killCovering(cell);
+		} else if (result == ShotResult.HIT) {
+			// Every possible placement through this square now covers one more hit
+			for (int k = 0; k < lengths.length; k++) {
+				for (int i = 0; i < tables[k].getCoverCount(cell); i++) {
+					int p = lengthStart[k] + tables[k].getCover(cell, i);
+					if (alive[p]) {
+						hitsCovered[p]++;
+						addToCells(targetHeat, k, p, remaining[k]);
+					}
+				}
+			}
+		} else if (result == ShotResult.SUNK) {
+			recordSunk(sunk);
+		}
+	}
+
+	/**
+	 * Removes a sunk ship: its squares can't hold another ship, and
+	 * one ship of its length no longer needs to be found.
+	 */
+	private void recordSunk(Ship sunk) {
+		for (int i = 0; i < sunk.getLength(); i++) {
+			int cell = sunk.getSegmentRow(i) * size + sunk.getSegmentCol(i);
+			tried[cell] = true;
+			killCovering(cell);
+		}
+
+		int k = indexOfLength(sunk.getLength());
+		for (int p = lengthStart[k]; p < lengthStart[k + 1]; p++) {
+			if (alive[p]) {
+				addToCells(heat, k, p, -1);
+				addToCells(targetHeat, k, p, -hitsCovered[p]);
+			}
+		}
+		remaining[k]--;
+	}
+
+	/**
+	 * Marks every placement through a square as impossible and takes
+	 * its weight off the heat maps.
+	 */
+	private void killCovering(int cell) {
+		for (int k = 0; k < lengths.length; k++) {
+			for (int i = 0; i < tables[k].getCoverCount(cell); i++) {
+				int p = lengthStart[k] + tables[k].getCover(cell, i);
+				if (alive[p]) {
+					alive[p] = false;
+					int weight = remaining[k];
+					addToCells(heat, k, p, -weight);
+					addToCells(targetHeat, k, p, -weight * hitsCovered[p]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds an amount to the map for every square of placement p, which
+	 * has length lengths[k].
+	 */
+	private void addToCells(int[] map, int k, int p, int amount) {
+		if (amount == 0) {
+			return;
+		}
+		PlacementTable table = tables[k];
+		int local = p - lengthStart[k];
+		int step = table.getStep(local);
+		for (int i = 0, cell = table.getStart(local); i < lengths[k]; i++, cell += step) {
+			map[cell] += amount;
+		}
+	}
+
+	/**
+	 * Collects the distinct ship lengths and how many ships have each.
+	 */
+	private void countLengths(int[] fleetLengths) {
+		int[] distinct = new int[fleetLengths.length];
+		int[] counts = new int[fleetLengths.length];
+		int n = 0;
+		for (int len : fleetLengths) {
+			int k = 0;
+			while (k < n && distinct[k] != len) {
+				k++;
+			}
+			if (k == n) {
+				distinct[n++] = len;
+			}
+			counts[k]++;
+		}
+		lengths = Arrays.copyOf(distinct, n);
+		fleetCounts = Arrays.copyOf(counts, n);
+	}
+
+	// Index in lengths of the given ship length
+	private int indexOfLength(int len) {
+		for (int k = 0; k < lengths.length; k++) {
+			if (lengths[k] == len) {
+				return k;
+			}
+		}
+		throw new IllegalArgumentException("No ship of length " + len + " in the fleet");
+	}
+}
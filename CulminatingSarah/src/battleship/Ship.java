@@ -0,0 +1,306 @@
+package battleship;
+
+import java.util.ArrayList;
+
+/**
+ * Ship represents a single Battleship ship (Carrier, Destroyer, Battleship, Cruiser, Submarine).
+ * 
+ * We track: 
+ * 	- name and length (metadata)
+ * 	- where it sits: the first square (origin) and whether it runs
+ * 	  across (horizontal) or down (vertical)
+ *  - which segments have been hit, as one bit per segment
+ *  
+ *  The squares a ship covers are worked out from the origin when
+ *  needed, so a ship is a handful of fields no matter how long it is.
+ *  
+ *  Board is responsible for:
+ *  - placing ships
+ *  - determining if a shot hit which ship
+ */
+public class Ship {
+	
+	// Longest ship supported (one bit per segment in a long)
+	public static final int MAX_LENGTH = 64;
+	
+	// The name of the ship (e.g. "Destroyer")
+	private String name;
+	
+	// The length of the ship (number of grid squares)
+	private int length;
+	
+	// First square of the ship and its direction
+	private int originRow;
+	private int originCol;
+	private boolean horizontal;
+	private boolean placed;
+	
+	// Bit i is set when segment i (counting from the origin) has been hit
+	private long hitMask;
+	
+	// The coordinates this ship occupies, built the first time they are asked for
+	private ArrayList<Coordinate> positions;
+	
+	// Squares given so far through the old addPosition()
+	private int addedPositions;
+	
+	/**
+	 * Constructs a new Ship. 
+	 * 
+	 * @param name ship name
+	 * @param length ship length (number of grid squares)
+	 */
+	public Ship(String name, int length) {
+		if (length < 1 || length > MAX_LENGTH) {
+			throw new IllegalArgumentException("Ship length must be between 1 and " + MAX_LENGTH + ": " + length);
+		}
+		this.name = name; 
+		this.length = length;
+	}
+	
+	/**
+	 * Returns the name of the ship
+	 * 
+	 * @return ship name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Returns the length of the ship
+	 * 
+	 * @return ship length
+	 */
+	public int getLength() {
+		return length;
+	}
+	
+	/**
+	 * Puts the ship at a position. 
+	 * This method is called when the ship is placed on the board.
+	 * 
+	 * @param row row of the first square
+	 * @param col column of the first square
+	 * @param horizontal true if the ship runs along the row
+	 */
+	public void place(int row, int col, boolean horizontal) {
+		if (placed) {
+			throw new IllegalStateException(name + " is already placed");
+		}
+		this.originRow = row;
+		this.originCol = col;
+		this.horizontal = horizontal;
+		this.placed = true;
+	}
+	
+	/**
+	 * Takes the ship off the board and repairs it, so the same object
+	 * can be placed again in a new game.
+	 */
+	public void reset() {
+		placed = false;
+		hitMask = 0;
+		positions = null;
+		addedPositions = 0;
+	}
+	
+	/**
+	 * Returns true once the ship has been placed on a board.
+	 * 
+	 * @return true if placed
+	 */
+	public boolean isPlaced() {
+		return placed;
+	}
+	
+	/**
+	 * Returns the row of the ship's first square.
+	 * 
+	 * @return the origin row
+	 */
+	public int getRow() {
+		return originRow;
+	}
+	
+	/**
+	 * Returns the column of the ship's first square.
+	 * 
+	 * @return the origin column
+	 */
+	public int getCol() {
+		return originCol;
+	}
+	
+	/**
+	 * Returns true if the ship runs along a row, false if down a column.
+	 * 
+	 * @return true if horizontal
+	 */
+	public boolean isHorizontal() {
+		return horizontal;
+	}
+	
+	/**
+	 * Returns the row of one segment.
+	 * 
+	 * @param segment segment number, 0 is the origin
+	 * @return the segment's row
+	 */
+	public int getSegmentRow(int segment) {
+		return horizontal ? originRow : originRow + segment;
+	}
+	
+	/**
+	 * Returns the column of one segment.
+	 * 
+	 * @param segment segment number, 0 is the origin
+	 * @return the segment's column
+	 */
+	public int getSegmentCol(int segment) {
+		return horizontal ? originCol + segment : originCol;
+	}
+	
+	/**
+	 * Returns which segment of the ship is on a square.
+	 * 
+	 * @param row row index
+	 * @param col column index
+	 * @return the segment number, or -1 if the ship doesn't cover the square
+	 */
+	public int segmentAt(int row, int col) {
+		if (!placed) {
+			return -1;
+		}
+		int segment;
+		if (horizontal) {
+			segment = row == originRow ? col - originCol : -1;
+		} else {
+			segment = col == originCol ? row - originRow : -1;
+		}
+		return segment >= 0 && segment < getPlacedLength() ? segment : -1;
+	}
+	
+	// Segments on the board: all of them, or only the ones given so far
+	// to addPosition() while a ship is built one square at a time
+	private int getPlacedLength() {
+		return addedPositions > 0 ? addedPositions : length;
+	}
+	
+	/**
+	 * Adds the next square the ship occupies, the old way of placing
+	 * a ship one square at a time. The first square is the origin and
+	 * the second one sets the direction; each later one must continue
+	 * the line. Until every square is added, getPositions() and
+	 * segmentAt() only know the squares added so far.
+	 * 
+	 * @param c the next coordinate occupied by the ship
+	 * @throws IllegalArgumentException if the square doesn't continue the ship
+	 * @deprecated use place(row, col, horizontal), which sets every square at once
+	 */
+	@Deprecated
+	public void addPosition(Coordinate c) {
+		int row = c.getRow();
+		int col = c.getCol();
+		if (addedPositions == 0) {
+			place(row, col, true);
+			addedPositions = 1;
+			return;
+		}
+		if (addedPositions == 1) {
+			// Down a column if the second square is below the first
+			horizontal = row == originRow;
+		}
+		if (addedPositions >= length || getSegmentRow(addedPositions) != row || getSegmentCol(addedPositions) != col) {
+			if (addedPositions == 1) {
+				horizontal = true;
+			}
+			throw new IllegalArgumentException(c + " doesn't continue " + name);
+		}
+		addedPositions++;
+		positions = null;
+	}
+	
+	/**
+	 * Returns all coordinate occupied by this ship.
+	 * The list is built the first time it is asked for and then reused.
+	 * A ship still being built with addPosition() only lists the
+	 * squares added so far.
+	 * 
+	 * @return an ArrayList of Coordinate objects (empty if not placed)
+	 */
+	public ArrayList<Coordinate> getPositions() {
+		if (!placed) {
+			return new ArrayList<>();
+		}
+		if (positions == null) {
+			positions = new ArrayList<>(getPlacedLength());
+			for (int i = 0; i < getPlacedLength(); i++) {
+				positions.add(new Coordinate(getSegmentRow(i), getSegmentCol(i)));
+			}
+		}
+		return positions;
+	}
+	
+	/**
+	 * Registers a hit on one segment of this ship.
+	 * Hitting the same segment twice counts once.
+	 * 
+	 * @param segment the segment that was hit
+	 */
+	public void registerHit(int segment) {
+		hitMask |= 1L << segment;
+	}
+	
+	/**
+	 * Registers one more hit on this ship, on its first undamaged
+	 * segment.
+	 * 
+	 * @deprecated use registerHit(segment), so the same square can't count twice
+	 */
+	@Deprecated
+	public void registerHit() {
+		int segment = Long.numberOfTrailingZeros(~hitMask);
+		if (segment < length) {
+			registerHit(segment);
+		}
+	}
+	
+	/**
+	 * Returns true if a segment has been hit.
+	 * 
+	 * @param segment segment number, 0 is the origin
+	 * @return true if that segment is damaged
+	 */
+	public boolean isHit(int segment) {
+		return (hitMask & (1L << segment)) != 0;
+	}
+	
+	/**
+	 * Returns the damaged segments as a bitmask (bit i = segment i).
+	 * 
+	 * @return the hit mask
+	 */
+	public long getHitMask() {
+		return hitMask;
+	}
+	
+	/**
+	 * Returns how many segments have been hit.
+	 * 
+	 * @return the number of hits
+	 */
+	public int getHits() {
+		return Long.bitCount(hitMask);
+	}
+	
+	/**
+	 * Checks whether the ship has been sunk.
+	 * A ship is sunk when every segment has been hit.
+	 * 
+	 * @return true if the ship is sunk, false otherwise.
+	 */
+	public boolean isSunk() {
+		return hitMask == (-1L >>> (MAX_LENGTH - length));
+	}
+}
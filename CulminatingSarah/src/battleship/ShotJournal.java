@@ -0,0 +1,151 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ShotJournal writes finished games to an append-only binary file.
+ *
+ * The file is a list of 8-byte records, so record i always starts at
+ * byte i * 8 and a reader can jump anywhere without parsing. Every
+ * record is laid out the same way (little endian):
+ * - byte 0: record type (GAME, SHIP, SHOT or END)
+ * - byte 1: side (the board index, as in HeadlessGame)
+ * - byte 2: extra (ship length, shot result or winner)
+ * - byte 3: flags (HORIZONTAL for ships)
+ * - bytes 4-7: value (board size, packed square or shot count)
+ *
+ * The first record of the file is a header holding MAGIC and VERSION.
+ * Each game is then:
+ * - one GAME record with the board size
+ * - one SHIP record per ship per board (the layout)
+ * - one SHOT record per shot, in the order they were fired
+ * - one END record with the winner and the winner's shot count
+ *
+ * Games are collected in a GameRecorder and appended whole, so games
+ * from different threads never interleave. Use ShotJournalReader to
+ * read the file back.
+ */
+public class ShotJournal implements AutoCloseable {
+
+	// Size of every record in bytes
+	public static final int RECORD_BYTES = 8;
+
+	// Header record: "BSHJ" and the format version
+	public static final int MAGIC = 0x4A485342;
+	public static final int VERSION = 1;
+
+	// Record types
+	public static final byte GAME = 1;
+	public static final byte SHIP = 2;
+	public static final byte SHOT = 3;
+	public static final byte END = 4;
+
+	// Flag bit on SHIP records
+	public static final byte HORIZONTAL = 1;
+
+	// Bytes collected before they are written to the file
+	private static final int BUFFER_BYTES = 1 << 20;
+
+	// The journal file, opened for appending
+	private FileChannel channel;
+
+	// Games waiting to be written
+	private ByteBuffer buffer;
+
+	/**
+	 * Opens a journal for appending, creating it (with a header) if it
+	 * does not exist yet.
+	 *
+	 * @param file the journal file
+	 * @throws IOException if the file can't be opened or is not a journal
+	 */
+	public ShotJournal(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+		long bytes = channel.size();
+		if (bytes % RECORD_BYTES != 0) {
+			channel.close();
+			throw new IOException("Not a shot journal (size " + bytes + " is not a multiple of "
+					+ RECORD_BYTES + "): " + file);
+		}
+		if (bytes == 0) {
+			buffer.putInt(MAGIC).putInt(VERSION);
+		} else if (!hasHeader(file)) {
+			// Appending to some other file would corrupt it
+			channel.close();
+			throw new IOException("Not a shot journal (bad header): " + file);
+		}
+	}
+
+	// True if the file starts with the MAGIC and VERSION header record
+	// (read through its own channel, since an appending one can't read)
+	private static boolean hasHeader(Path file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (header.hasRemaining()) {
+				if (in.read(header) < 0) {
+					return false;
+				}
+			}
+		}
+		return header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+	}
+
+	/**
+	 * Adds one finished game to the journal. Safe to call from several
+	 * threads; each game is written as one block.
+	 *
+	 * @param game the recorded game
+	 * @throws IOException if writing fails
+	 */
+	public synchronized void append(GameRecorder game) throws IOException {
+		ByteBuffer records = game.getRecords();
+		if (records.remaining() > buffer.remaining()) {
+			flush();
+		}
+		if (records.remaining() > buffer.remaining()) {
+			// Bigger than the whole buffer: write it straight to the file
+			writeFully(records);
+		} else {
+			buffer.put(records);
+		}
+	}
+
+	/**
+	 * Writes any buffered games to the file.
+	 *
+	 * @throws IOException if writing fails
+	 */
+	public synchronized void flush() throws IOException {
+		buffer.flip();
+		writeFully(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Writes any buffered games and closes the file.
+	 *
+	 * @throws IOException if writing or closing fails
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel.isOpen()) {
+			flush();
+			channel.close();
+		}
+	}
+
+	// Writes everything left in a buffer
+	private void writeFully(ByteBuffer bytes) throws IOException {
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+	}
+}
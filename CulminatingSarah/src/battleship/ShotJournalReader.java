@@ -0,0 +1,301 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ShotJournalReader reads a ShotJournal file by memory-mapping it.
+ *
+ * Records are read straight out of the mapped file with no parsing or
+ * copying: record i is the 8 bytes at i * 8. Files bigger than 2 GB are
+ * mapped in several pieces. The journal format is described in
+ * ShotJournal.
+ *
+ * Typical use is to walk the games with firstGame() and nextGame(), and
+ * either look at the records directly or rebuild a game with replay().
+ */
+public class ShotJournalReader implements AutoCloseable {
+
+	// Records per mapped piece (1 GB of records)
+	private static final int PIECE_SHIFT = 27;
+	private static final long PIECE_RECORDS = 1L << PIECE_SHIFT;
+
+	// The journal file
+	private FileChannel channel;
+
+	// The file, mapped one piece at a time
+	private MappedByteBuffer[] pieces;
+
+	// Number of records in the file, including the header
+	private long recordCount;
+
+	// Shot results by ordinal (values() makes a new array every call)
+	private static final ShotResult[] RESULTS = ShotResult.values();
+
+	/**
+	 * Opens and maps a journal file.
+	 *
+	 * @param file the journal file
+	 * @throws IOException if the file can't be read or is not a journal
+	 */
+	public ShotJournalReader(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		long bytes = channel.size();
+		recordCount = bytes / ShotJournal.RECORD_BYTES;
+
+		int count = (int) ((recordCount + PIECE_RECORDS - 1) >>> PIECE_SHIFT);
+		pieces = new MappedByteBuffer[count];
+		for (int i = 0; i < count; i++) {
+			long start = (long) i << PIECE_SHIFT;
+			long records = Math.min(PIECE_RECORDS, recordCount - start);
+			pieces[i] = channel.map(FileChannel.MapMode.READ_ONLY, start * ShotJournal.RECORD_BYTES,
+					records * ShotJournal.RECORD_BYTES);
+			pieces[i].order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		if (recordCount == 0 || pieces[0].getInt(0) != ShotJournal.MAGIC
+				|| pieces[0].getInt(4) != ShotJournal.VERSION) {
+			channel.close();
+			throw new IOException("Not a shot journal (bad header): " + file);
+		}
+	}
+
+	/**
+	 * Returns the number of records in the file, including the header.
+	 *
+	 * @return the record count
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Returns the type of a record (GAME, SHIP, SHOT or END).
+	 *
+	 * @param record record index
+	 * @return the record type
+	 */
+	public int getType(long record) {
+		return byteAt(record, 0);
+	}
+
+	/**
+	 * Returns the side (board index) of a record.
+	 *
+	 * @param record record index
+	 * @return the side
+	 */
+	public int getSide(long record) {
+		return byteAt(record, 1);
+	}
+
+	/**
+	 * Returns the extra byte of a record: the ship length of a SHIP
+	 * record or the result ordinal of a SHOT record.
+	 *
+	 * @param record record index
+	 * @return the extra byte
+	 */
+	public int getExtra(long record) {
+		return byteAt(record, 2);
+	}
+
+	/**
+	 * Returns the flags of a record.
+	 *
+	 * @param record record index
+	 * @return the flags byte
+	 */
+	public int getFlags(long record) {
+		return byteAt(record, 3);
+	}
+
+	/**
+	 * Returns the value of a record: the board size, a packed square
+	 * or a shot count depending on the type.
+	 *
+	 * @param record record index
+	 * @return the value
+	 */
+	public int getValue(long record) {
+		return pieces[(int) (record >>> PIECE_SHIFT)].getInt(offset(record) + 4);
+	}
+
+	/**
+	 * Returns the result of a SHOT record.
+	 *
+	 * @param record record index of a SHOT record
+	 * @return the shot result
+	 * @throws IllegalStateException if the result byte is not a ShotResult
+	 */
+	public ShotResult getResult(long record) {
+		int result = getExtra(record);
+		if (result < 0 || result >= RESULTS.length) {
+			throw new IllegalStateException("Record " + record + ": bad shot result " + result);
+		}
+		return RESULTS[result];
+	}
+
+	/**
+	 * Returns the index of the first GAME record, or -1 if the journal
+	 * holds no games.
+	 *
+	 * @return record index of the first game
+	 */
+	public long firstGame() {
+		return nextGameFrom(1);
+	}
+
+	/**
+	 * Returns the index of the GAME record after the one given, or -1
+	 * if it was the last game.
+	 *
+	 * @param game record index of a GAME record
+	 * @return record index of the next game
+	 */
+	public long nextGame(long game) {
+		return nextGameFrom(game + 1);
+	}
+
+	/**
+	 * Rebuilds a game from the journal: places the recorded ships on two
+	 * new boards and fires every recorded shot, checking that each shot
+	 * gives the result that was recorded.
+	 *
+	 * The journal does not store ship names, so ships are named by their
+	 * order on the board ("Ship 1", "Ship 2", ...).
+	 *
+	 * @param game record index of a GAME record
+	 * @return the two boards at the end of the game, indexed by side
+	 * @throws IllegalStateException if the records don't match a legal
+	 *         game, or a record has a field that can't be right (the
+	 *         message names the record and the field)
+	 */
+	public Board[] replay(long game) {
+		if (getType(game) != ShotJournal.GAME) {
+			throw new IllegalArgumentException("Record " + game + " is not the start of a game");
+		}
+		int size = getValue(game);
+		if (size <= 0 || size > GameConfig.MAX_SIZE) {
+			throw new IllegalStateException("Record " + game + ": bad board size " + size);
+		}
+		Board[] boards = { new Board(size), new Board(size) };
+		int[] shipNumbers = new int[2];
+
+		for (long r = game + 1; r < recordCount; r++) {
+			int type = getType(r);
+			if (type == ShotJournal.GAME) {
+				// The next game started before this one ended
+				break;
+			}
+			if (type != ShotJournal.SHIP && type != ShotJournal.SHOT && type != ShotJournal.END) {
+				throw new IllegalStateException("Record " + r + ": unknown record type " + type);
+			}
+			int side = getSide(r);
+			if (side != HeadlessGame.PLAYER && side != HeadlessGame.COMPUTER) {
+				throw new IllegalStateException("Record " + r + ": bad side " + side);
+			}
+			int value = getValue(r);
+			if (type == ShotJournal.SHIP) {
+				int length = getExtra(r);
+				if (length < 1 || length > Ship.MAX_LENGTH) {
+					throw new IllegalStateException("Record " + r + ": bad ship length " + length);
+				}
+				Ship ship = new Ship("Ship " + (++shipNumbers[side]), length);
+				boolean horizontal = (getFlags(r) & ShotJournal.HORIZONTAL) != 0;
+				try {
+					boards[side].placeShipAt(ship, PackedCoord.row(value), PackedCoord.col(value), horizontal);
+				} catch (IllegalArgumentException e) {
+					throw new IllegalStateException("Record " + r + ": bad ship square: " + e.getMessage(), e);
+				}
+			} else if (type == ShotJournal.SHOT) {
+				ShotResult result = boards[side].fire(PackedCoord.row(value), PackedCoord.col(value));
+				if (result != getResult(r)) {
+					throw new IllegalStateException("Record " + r + ": journal says " + getResult(r)
+							+ " but the replay gave " + result);
+				}
+			} else if (type == ShotJournal.END) {
+				if (!boards[side].allShipsSunk()) {
+					throw new IllegalStateException("Record " + r + ": side " + side
+							+ " is recorded as the winner but has not sunk every ship");
+				}
+				return boards;
+			}
+		}
+		throw new IllegalStateException("Game at record " + game + " has no END record");
+	}
+
+	/**
+	 * Closes the file. The records can't be read afterwards.
+	 *
+	 * @throws IOException if closing fails
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	// First GAME record at or after a record index, or -1
+	private long nextGameFrom(long record) {
+		for (long r = record; r < recordCount; r++) {
+			if (getType(r) == ShotJournal.GAME) {
+				return r;
+			}
+		}
+		return -1;
+	}
+
+	// One byte of a record
+	private int byteAt(long record, int index) {
+		return pieces[(int) (record >>> PIECE_SHIFT)].get(offset(record) + index);
+	}
+
+	// Byte position of a record inside its piece
+	private int offset(long record) {
+		return (int) (record & (PIECE_RECORDS - 1)) * ShotJournal.RECORD_BYTES;
+	}
+
+	/**
+	 * Prints a summary of a journal: games, shots and wins per side.
+	 * Every game is also replayed to check the journal.
+	 *
+	 * Usage: java ShotJournalReader journal-file
+	 *
+	 * @param args the journal file
+	 * @throws IOException if the file can't be read
+	 */
+	public static void main(String[] args) throws IOException {
+		try (ShotJournalReader reader = new ShotJournalReader(Paths.get(args[0]))) {
+			long games = 0;
+			long shots = 0;
+			long shotsToWin = 0;
+			long[] wins = new long[2];
+			for (long g = reader.firstGame(); g >= 0; g = reader.nextGame(g)) {
+				reader.replay(g);
+				games++;
+				for (long r = g + 1; r < reader.getRecordCount(); r++) {
+					int type = reader.getType(r);
+					if (type == ShotJournal.SHOT) {
+						shots++;
+					} else if (type == ShotJournal.END) {
+						wins[reader.getSide(r)]++;
+						shotsToWin += reader.getValue(r);
+						break;
+					}
+				}
+			}
+			System.out.println("Games:          " + games);
+			System.out.println("Shots:          " + shots);
+			System.out.printf("Player wins:    %d%nComputer wins:  %d%n", wins[HeadlessGame.PLAYER],
+					wins[HeadlessGame.COMPUTER]);
+			if (games > 0) {
+				System.out.printf("Shots to win:   mean %.2f%n", (double) shotsToWin / games);
+			}
+		}
+	}
+}
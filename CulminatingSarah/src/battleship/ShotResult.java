@@ -0,0 +1,42 @@
+package battleship;
+
+/**
+ * ShotResult is the outcome of firing at one square of a Board.
+ *
+ * Outcomes:
+ * - OUT_OF_BOUNDS: the square is not on the board
+ * - ALREADY_TRIED: the square was shot before
+ * - MISS: the shot hit water
+ * - HIT: the shot hit a ship that is still afloat
+ * - SUNK: the shot hit the last unhit square of a ship
+ *
+ * For HIT and SUNK the Board also remembers which ship was hit
+ * (see Board.getLastShipId), so no message or object has to be
+ * created for each shot.
+ */
+public enum ShotResult {
+	OUT_OF_BOUNDS,
+	ALREADY_TRIED,
+	MISS,
+	HIT,
+	SUNK;
+
+	/**
+	 * Returns true if the shot hit a ship (HIT or SUNK).
+	 *
+	 * @return true for a hit or a sink
+	 */
+	public boolean isHit() {
+		return this == HIT || this == SUNK;
+	}
+
+	/**
+	 * Returns true if the shot was taken (it was on the board and
+	 * had not been tried before).
+	 *
+	 * @return true for MISS, HIT or SUNK
+	 */
+	public boolean isValid() {
+		return this == MISS || isHit();
+	}
+}
@@ -0,0 +1,255 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulator plays many HeadlessGames in parallel and reports:
+ * - how many games per second were played
+ * - how many games each side won
+ * - the distribution of shots-to-win (shots the winner needed)
+ *
+ * The games are split evenly across a fixed thread pool. Game g is
+ * always played with seed GameSeeds.gameSeed(seed, g), whichever
+ * worker plays it, so the results don't depend on the thread count and
+ * a failed game can be replayed alone from the seed in its error.
+ * Each worker has its own histogram and one HeadlessGame that it
+ * restarts for every game (boards come from a worker-local BoardPool),
+ * so workers never share state and games don't create garbage.
+ *
+ * Usage: java Simulator [games] [threads] [boardSize] [seed]
+ *                       [playerStrategy] [computerStrategy] [fleet] [journal]
+ *
+ * Strategy names are the ones accepted by TargetingStrategy.create.
+ * If a journal file is given, every game is appended to it as a
+ * ShotJournal (read it back with ShotJournalReader).
+ *
+ * The engine metrics (GameMetrics) are printed after the report. Run
+ * with -Dbattleship.metricsSeconds=N to also print them every N
+ * seconds while the games are running.
+ */
+public class Simulator {
+
+	// shotsToWin[n] = number of games the winner won in exactly n shots;
+	// grows to the longest game seen, so it doesn't depend on the board area
+	private long[] shotsToWin = new long[128];
+
+	// Number of games won by the player side
+	private long playerWins;
+
+	// Total number of games played
+	private long games;
+
+	// Wall clock time for the whole run
+	private long elapsedNanos;
+
+	private Simulator() {
+	}
+
+	/**
+	 * Plays the given number of games spread over a thread pool.
+	 *
+	 * @param games number of games to play
+	 * @param threads number of worker threads
+	 * @param config board size and fleet
+	 * @param seed run seed; game g is played with GameSeeds.gameSeed(seed, g)
+	 * @param playerAI strategy name for the player side
+	 * @param computerAI strategy name for the computer side
+	 * @return the combined results
+	 */
+	public static Simulator run(int games, int threads, GameConfig config, long seed, String playerAI, String computerAI) {
+		return run(games, threads, config, seed, playerAI, computerAI, null);
+	}
+
+	/**
+	 * Plays many games on a thread pool, recording every game to a
+	 * journal. All workers append to the same journal.
+	 *
+	 * @param games number of games to play
+	 * @param threads number of worker threads
+	 * @param config board size and fleet
+	 * @param seed run seed; game g is played with GameSeeds.gameSeed(seed, g)
+	 * @param playerAI strategy name for the player side
+	 * @param computerAI strategy name for the computer side
+	 * @param journal journal to record the games to, or null
+	 * @return the combined results
+	 */
+	public static Simulator run(int games, int threads, GameConfig config, long seed, String playerAI, String computerAI,
+			ShotJournal journal) {
+		Simulator total = new Simulator();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		try {
+			List<Future<Simulator>> parts = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				// Games from..to-1, spread evenly
+				long from = (long) games * t / threads;
+				long to = (long) games * (t + 1) / threads;
+				parts.add(pool.submit(() -> playBatch(from, to, config, seed, playerAI, computerAI, journal)));
+			}
+			for (Future<Simulator> part : parts) {
+				total.add(part.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Simulation interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Simulation failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		total.elapsedNanos = System.nanoTime() - start;
+		return total;
+	}
+
+	/**
+	 * Plays a batch of games on the calling thread.
+	 */
+	private static Simulator playBatch(long from, long to, GameConfig config, long seed, String playerAI,
+			String computerAI, ShotJournal journal) {
+		Simulator batch = new Simulator();
+		if (from == to) {
+			return batch;
+		}
+		HeadlessGame game = new HeadlessGame(config, GameSeeds.gameSeed(seed, from), playerAI, computerAI,
+				new BoardPool(config, 2));
+		game.setJournal(journal);
+		for (long g = from; g < to; g++) {
+			long gameSeed = GameSeeds.gameSeed(seed, g);
+			if (g > from) {
+				game.restart(gameSeed);
+			}
+			try {
+				game.play();
+			} catch (RuntimeException e) {
+				// The seed is enough to replay the game with HeadlessGame.main
+				throw new IllegalStateException("Game with seed " + gameSeed + " failed", e);
+			}
+			batch.countGame(game.getShotsToWin());
+			if (game.getWinner() == HeadlessGame.PLAYER) {
+				batch.playerWins++;
+			}
+			batch.games++;
+		}
+		return batch;
+	}
+
+	// Adds one game to the histogram, growing it if needed
+	private void countGame(int shots) {
+		if (shots >= shotsToWin.length) {
+			shotsToWin = Arrays.copyOf(shotsToWin, Math.max(shots + 1, 2 * shotsToWin.length));
+		}
+		shotsToWin[shots]++;
+	}
+
+	/**
+	 * Adds another set of results to this one.
+	 */
+	private void add(Simulator other) {
+		if (other.shotsToWin.length > shotsToWin.length) {
+			shotsToWin = Arrays.copyOf(shotsToWin, other.shotsToWin.length);
+		}
+		for (int i = 0; i < other.shotsToWin.length; i++) {
+			shotsToWin[i] += other.shotsToWin[i];
+		}
+		playerWins += other.playerWins;
+		games += other.games;
+	}
+
+	/**
+	 * Returns the number of games played per second.
+	 *
+	 * @return games per second
+	 */
+	public double getGamesPerSecond() {
+		return games / (elapsedNanos / 1e9);
+	}
+
+	/**
+	 * Returns the average number of shots the winner needed.
+	 *
+	 * @return mean shots-to-win
+	 */
+	public double getMeanShotsToWin() {
+		long sum = 0;
+		for (int i = 0; i < shotsToWin.length; i++) {
+			sum += i * shotsToWin[i];
+		}
+		return (double) sum / games;
+	}
+
+	/**
+	 * Returns the smallest shot count that at least the given fraction
+	 * of games were won in (ex: 0.5 is the median).
+	 *
+	 * @param fraction a value between 0 and 1
+	 * @return the shots-to-win percentile
+	 */
+	public int getPercentile(double fraction) {
+		long needed = (long) Math.ceil(fraction * games);
+		long seen = 0;
+		for (int i = 0; i < shotsToWin.length; i++) {
+			seen += shotsToWin[i];
+			if (seen >= needed && seen > 0) {
+				return i;
+			}
+		}
+		return shotsToWin.length - 1;
+	}
+
+	/**
+	 * Prints a summary of the run and the shots-to-win histogram.
+	 */
+	public void printReport() {
+		System.out.printf("Games played:   %d in %.2f s%n", games, elapsedNanos / 1e9);
+		System.out.printf("Games/second:   %.0f%n", getGamesPerSecond());
+		System.out.printf("Player wins:    %.1f%%%n", 100.0 * playerWins / games);
+		System.out.printf("Shots to win:   mean %.2f, p50 %d, p90 %d, p99 %d%n",
+				getMeanShotsToWin(), getPercentile(0.5), getPercentile(0.9), getPercentile(0.99));
+		System.out.println("Distribution (shots: games):");
+		for (int i = 0; i < shotsToWin.length; i++) {
+			if (shotsToWin[i] > 0) {
+				System.out.printf("%4d: %d%n", i, shotsToWin[i]);
+			}
+		}
+	}
+
+	/**
+	 * Runs a simulation from the command line.
+	 */
+	public static void main(String[] args) throws IOException {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int size = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+		String playerAI = args.length > 4 ? args[4] : "hunt";
+		String computerAI = args.length > 5 ? args[5] : playerAI;
+		Fleet fleet = args.length > 6 ? Fleet.parse(args[6]) : Fleet.standard();
+
+		GameConfig config = new GameConfig(size, fleet);
+		GameMetrics.get().register();
+		long metricsSeconds = Long.getLong("battleship.metricsSeconds", 0);
+		if (metricsSeconds > 0) {
+			GameMetrics.get().startDump(metricsSeconds, System.out);
+		}
+
+		if (args.length > 7) {
+			try (ShotJournal journal = new ShotJournal(Paths.get(args[7]))) {
+				run(games, threads, config, seed, playerAI, computerAI, journal).printReport();
+			}
+		} else {
+			run(games, threads, config, seed, playerAI, computerAI).printReport();
+		}
+		System.out.print(GameMetrics.get().getReport());
+		if (MonteCarloAI.SHARED_CACHE.getHits() + MonteCarloAI.SHARED_CACHE.getMisses() > 0) {
+			System.out.println("montecarlo cache: " + MonteCarloAI.SHARED_CACHE);
+		}
+	}
+}
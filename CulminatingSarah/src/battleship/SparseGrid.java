@@ -0,0 +1,231 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * SparseGrid stores a Board's squares in a hash table that only holds
+ * the squares that are not plain water (ships, hits and misses).
+ *
+ * A dense grid needs memory for every square, which is gigabytes on a
+ * 100000 x 100000 board. Here memory grows with the number of ship
+ * squares and shots instead, so huge, mostly empty oceans fit easily.
+ *
+ * Each square is keyed by its packed position (row * size + col, as a
+ * long) and the table uses open addressing with linear probing.
+ */
+public class SparseGrid implements CellGrid {
+
+	// Key used for empty slots (no real square has a negative position)
+	private static final long FREE = -1L;
+
+	// Flag bits stored in the low bits of each value.
+	// The remaining bits hold the ship id + 1 (0 means no ship).
+	private static final int HIT_FLAG = 1;
+	private static final int MISS_FLAG = 2;
+	private static final int FLAG_BITS = 2;
+
+	// Size of the board (ex: 100000 is 100000 x 100000)
+	private long size;
+
+	// Hash table: keys[i] is a packed square, values[i] its state
+	private long[] keys;
+	private int[] values;
+	private int used;
+
+	/**
+	 * Constructs an empty grid (all water) of the given size.
+	 *
+	 * @param size the board size
+	 */
+	public SparseGrid(int size) {
+		this.size = size;
+		keys = new long[64];
+		values = new int[64];
+		Arrays.fill(keys, FREE);
+	}
+
+	@Override
+	public int get(int row, int col) {
+		int value = lookup(row, col);
+		if ((value & HIT_FLAG) != 0) {
+			return Board.HIT;
+		}
+		if ((value & MISS_FLAG) != 0) {
+			return Board.MISS;
+		}
+		return value != 0 ? Board.SHIP : Board.EMPTY;
+	}
+
+	@Override
+	public boolean isShip(int row, int col) {
+		return (lookup(row, col) >>> FLAG_BITS) != 0;
+	}
+
+	@Override
+	public boolean isTried(int row, int col) {
+		return (lookup(row, col) & (HIT_FLAG | MISS_FLAG)) != 0;
+	}
+
+	@Override
+	public int getShipId(int row, int col) {
+		return (lookup(row, col) >>> FLAG_BITS) - 1;
+	}
+
+	@Override
+	public void setShip(int row, int col, int shipId) {
+		int slot = slotFor(row, col);
+		values[slot] = (values[slot] & (HIT_FLAG | MISS_FLAG)) | ((shipId + 1) << FLAG_BITS);
+	}
+
+	@Override
+	public void setHit(int row, int col) {
+		int slot = slotFor(row, col);
+		values[slot] |= HIT_FLAG;
+	}
+
+	@Override
+	public void setMiss(int row, int col) {
+		int slot = slotFor(row, col);
+		values[slot] |= MISS_FLAG;
+	}
+
+	/**
+	 * Checks each square of the run with a hash lookup.
+	 */
+	@Override
+	public boolean isRunFree(int row, int col, int length, boolean horizontal) {
+		for (int i = 0; i < length; i++) {
+			int r = horizontal ? row : row + i;
+			int c = horizontal ? col + i : col;
+			if (lookup(r, c) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks the placement's run of squares with isRunFree.
+	 */
+	@Override
+	public boolean isFree(PlacementTable table, int placement) {
+		return isRunFree(table.getRow(placement), table.getCol(placement), table.getLength(),
+				table.isHorizontal(placement));
+	}
+
+	/**
+	 * Returns the misses among squares w * 64 to w * 64 + 63. Looks up
+	 * each of the 64 squares, so this is only practical for boards
+	 * small enough to list every square.
+	 *
+	 * @param w word index
+	 * @return the miss bits of that word
+	 */
+	@Override
+	public long getMissWord(int w) {
+		long bits = 0;
+		long first = (long) w << 6;
+		long last = Math.min(first + 64, size * size);
+		for (long square = first; square < last; square++) {
+			if ((lookup((int) (square / size), (int) (square % size)) & MISS_FLAG) != 0) {
+				bits |= 1L << square;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Marks every square whose bit is set as a miss, with one table
+	 * insert per set bit.
+	 *
+	 * @param w word index
+	 * @param bits squares to mark as missed
+	 */
+	@Override
+	public void setMissWord(int w, long bits) {
+		long first = (long) w << 6;
+		while (bits != 0) {
+			long square = first + Long.numberOfTrailingZeros(bits);
+			setMiss((int) (square / size), (int) (square % size));
+			bits &= bits - 1;
+		}
+	}
+
+	/**
+	 * Empties the table but keeps its current capacity.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(keys, FREE);
+		Arrays.fill(values, 0);
+		used = 0;
+	}
+
+	/**
+	 * Returns the number of squares stored in the table.
+	 *
+	 * @return the number of non-water squares
+	 */
+	public int getStoredSquares() {
+		return used;
+	}
+
+	// Returns the value stored for a square, or 0 for plain water
+	private int lookup(int row, int col) {
+		long key = row * size + col;
+		int mask = keys.length - 1;
+		for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return values[i];
+			}
+			if (keys[i] == FREE) {
+				return 0;
+			}
+		}
+	}
+
+	// Returns the slot for a square, adding it to the table if needed
+	private int slotFor(int row, int col) {
+		// Keep the table at most half full so probes stay short
+		if (used * 2 >= keys.length) {
+			grow();
+		}
+		long key = row * size + col;
+		int mask = keys.length - 1;
+		int i = hash(key) & mask;
+		while (keys[i] != key && keys[i] != FREE) {
+			i = (i + 1) & mask;
+		}
+		if (keys[i] == FREE) {
+			keys[i] = key;
+			used++;
+		}
+		return i;
+	}
+
+	// Doubles the table and re-inserts every square
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[oldKeys.length * 2];
+		values = new int[oldKeys.length * 2];
+		Arrays.fill(keys, FREE);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != FREE) {
+				int i = hash(oldKeys[j]) & mask;
+				while (keys[i] != FREE) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	// Mixes the bits of a key so nearby squares spread over the table
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,64 @@
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * SplitMix is a small, fast random number generator that can be
+ * reseeded.
+ *
+ * It uses the SplitMix64 algorithm, the same one SplittableRandom
+ * uses: the state moves by a fixed odd step and each output is a
+ * scrambled copy of the state. Unlike Random it has no locking or
+ * atomic updates, and unlike SplittableRandom it can be given a new
+ * seed, so a worker can keep one object per stream and reseed it for
+ * every game instead of allocating new generators.
+ *
+ * A SplitMix must only be used by one thread at a time. Every other
+ * RandomGenerator method (nextInt(bound), nextBoolean(), ...) is
+ * built on nextLong().
+ */
+public class SplitMix implements RandomGenerator {
+
+	// Step added to the state for every number (the golden ratio, odd)
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+	// Current state
+	private long state;
+
+	/**
+	 * Constructs a generator.
+	 *
+	 * @param seed the seed; the same seed always gives the same numbers
+	 */
+	public SplitMix(long seed) {
+		state = seed;
+	}
+
+	/**
+	 * Starts the sequence again from a new seed.
+	 *
+	 * @param seed the new seed
+	 */
+	public void reseed(long seed) {
+		state = seed;
+	}
+
+	@Override
+	public long nextLong() {
+		state += GOLDEN;
+		return mix(state);
+	}
+
+	/**
+	 * Scrambles a value so that nearby inputs give unrelated outputs
+	 * (the SplitMix64 finaliser).
+	 *
+	 * @param z the value to scramble
+	 * @return the scrambled value
+	 */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
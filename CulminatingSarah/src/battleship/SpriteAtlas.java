@@ -0,0 +1,92 @@
+package battleship;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * SpriteAtlas holds every game image, already scaled to one cell size,
+ * side by side in a single image.
+ *
+ * The images are scaled once when the atlas is built. Drawing a sprite
+ * afterwards is a plain copy of a square from the atlas, which is much
+ * cheaper than scaling the original PNG on every draw.
+ *
+ * Must be created on the JavaFX application thread.
+ */
+public class SpriteAtlas {
+
+	// Sprite numbers (their position in the atlas)
+	public static final int WATER = 0;
+	public static final int CARRIER = 1;
+	public static final int BATTLESHIP = 2;
+	public static final int CRUISER = 3;
+	public static final int SUBMARINE = 4;
+	public static final int DESTROYER = 5;
+	public static final int EXPLOSION = 6;
+	public static final int MISS = 7;
+	public static final int SUNK = 8;
+
+	// Image files in sprite number order
+	private static final String[] FILES = {
+			"water.png", "carrier.png", "battleship.png", "cruiser.png", "submarine.png",
+			"destroyer.png", "explosion.png", "miss.png", "smoke.gif"
+	};
+
+	// All sprites in one row, each cellSize x cellSize pixels
+	private Image atlas;
+
+	// Width and height of one sprite in pixels
+	private double cellSize;
+
+	/**
+	 * Loads the game images and scales them into an atlas.
+	 *
+	 * @param cellSize width and height of one sprite in pixels
+	 */
+	public SpriteAtlas(double cellSize) {
+		this.cellSize = cellSize;
+
+		// Draw every image, scaled, onto one strip and keep a snapshot of it
+		Canvas strip = new Canvas(cellSize * FILES.length, cellSize);
+		GraphicsContext gc = strip.getGraphicsContext2D();
+		for (int i = 0; i < FILES.length; i++) {
+			Image image = new Image(getClass().getResourceAsStream("/" + FILES[i]));
+			gc.drawImage(image, i * cellSize, 0, cellSize, cellSize);
+		}
+		SnapshotParameters params = new SnapshotParameters();
+		params.setFill(Color.TRANSPARENT);
+		atlas = strip.snapshot(params, null);
+	}
+
+	/**
+	 * Draws one sprite with its top left corner at (x, y).
+	 *
+	 * @param gc the graphics context to draw on
+	 * @param sprite the sprite number
+	 * @param x left edge in pixels
+	 * @param y top edge in pixels
+	 */
+	public void draw(GraphicsContext gc, int sprite, double x, double y) {
+		gc.drawImage(atlas, sprite * cellSize, 0, cellSize, cellSize, x, y, cellSize, cellSize);
+	}
+
+	/**
+	 * Returns the sprite number for a ship, based on the ship's name.
+	 *
+	 * @param ship the ship
+	 * @return the ship's sprite number
+	 */
+	public int shipSprite(Ship ship) {
+		switch (ship.getName()) {
+		case "Carrier": return CARRIER;
+		case "Battleship": return BATTLESHIP;
+		case "Cruiser": return CRUISER;
+		case "Submarine": return SUBMARINE;
+		case "Destroyer": return DESTROYER;
+		default: return WATER;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Strategies is the list of targeting strategies that can be picked
+ * by name.
+ *
+ * Built in:
+ * - "hunt": HuntTargetAI (random, then neighbours of a hit)
+ * - "density": ProbabilityAI (placement counting heat map)
+ * - "montecarlo": MonteCarloAI (parallel sampling of whole fleet layouts)
+ * - "montecarlo-book": the same, but playing its first shots from the
+ *   opening book when there is one for the game (see
+ *   OpeningBook.getDefault). The book is a file outside the game, so
+ *   only this name reads it; the others depend only on the seed.
+ *
+ * A new strategy (or a new version of an old one) is added with
+ * register(), and can then be used anywhere a strategy name is taken,
+ * without changing the GUI or the runners.
+ *
+ * Boards are at most GameConfig.MAX_SIZE wide (checked by GameConfig),
+ * so a strategy can pack any square with PackedCoord.
+ */
+public class Strategies {
+
+	// Factories by name, in the order they were registered
+	private static final Map<String, StrategyFactory> FACTORIES = new LinkedHashMap<>();
+
+	static {
+		register("hunt", (config, rand) -> new HuntTargetAI(config.getSize(), rand));
+		register("density", (config, rand) -> new ProbabilityAI(config.getSize(), config.getFleet().getLengths(), rand));
+		register("montecarlo", (config, rand) -> new MonteCarloAI(config.getSize(), config.getFleet().getLengths(), rand));
+		register("montecarlo-book", (config, rand) -> OpeningBook.wrap(
+				new MonteCarloAI(config.getSize(), config.getFleet().getLengths(), rand), config));
+	}
+
+	// Only static methods
+	private Strategies() {
+	}
+
+	/**
+	 * Adds a strategy, or replaces the one with the same name.
+	 *
+	 * @param name the strategy name
+	 * @param factory makes the strategy for each game
+	 */
+	public static synchronized void register(String name, StrategyFactory factory) {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("Strategy name can't be empty");
+		}
+		FACTORIES.put(name, factory);
+	}
+
+	/**
+	 * Returns the names of every registered strategy.
+	 *
+	 * @return the names, in registration order
+	 */
+	public static synchronized List<String> names() {
+		return new ArrayList<>(FACTORIES.keySet());
+	}
+
+	/**
+	 * Creates a strategy by name.
+	 *
+	 * @param name the strategy name
+	 * @param config board size and fleet of the game
+	 * @param rand random generator used by the strategy
+	 * @return a new strategy for one game
+	 * @throws IllegalArgumentException for an unknown name
+	 */
+	public static TargetingStrategy create(String name, GameConfig config, RandomGenerator rand) {
+		StrategyFactory factory;
+		synchronized (Strategies.class) {
+			factory = FACTORIES.get(name);
+		}
+		if (factory == null) {
+			throw new IllegalArgumentException("Unknown strategy: " + name + " (known: " + names() + ")");
+		}
+		return factory.create(config, rand);
+	}
+}
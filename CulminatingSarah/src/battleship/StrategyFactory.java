@@ -0,0 +1,23 @@
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * StrategyFactory makes a new TargetingStrategy for one game.
+ *
+ * Register one with Strategies.register() to make a strategy available
+ * by name to the GUI (--ai=NAME), HeadlessGame, Simulator and
+ * Tournament.
+ */
+@FunctionalInterface
+public interface StrategyFactory {
+
+	/**
+	 * Creates a strategy.
+	 *
+	 * @param config board size and fleet of the game
+	 * @param rand random generator the strategy should use
+	 * @return a new strategy
+	 */
+	TargetingStrategy create(GameConfig config, RandomGenerator rand);
+}
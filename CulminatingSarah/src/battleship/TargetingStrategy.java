@@ -0,0 +1,76 @@
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * TargetingStrategy picks the squares an AI shoots at.
+ *
+ * The game asks the strategy for a square with nextShot(), fires at
+ * it, and then reports what happened with recordShot(). Strategies do
+ * not see the enemy board, only the results of their own shots.
+ *
+ * Squares are passed as packed ints (see PackedCoord), so picking a
+ * move doesn't create any objects.
+ *
+ * The GUI, HeadlessGame, Simulator and Tournament all pick strategies
+ * by name through Strategies.
+ */
+public interface TargetingStrategy {
+
+	/**
+	 * Picks the next square to shoot at. The square must be on the
+	 * board and must not have been shot before.
+	 *
+	 * A strategy whose search can take a while should check the
+	 * thread's interrupt flag in its loops and give up when it is set,
+	 * so BackgroundAI can stop a move that ran out of time.
+	 *
+	 * @return the square to shoot at, packed with PackedCoord.pack
+	 * @throws IllegalStateException if the thread was interrupted
+	 */
+	int nextShot();
+
+	/**
+	 * Updates the strategy after a shot has been fired.
+	 *
+	 * @param row row that was shot
+	 * @param col column that was shot
+	 * @param result result of the shot
+	 * @param sunk the ship that was sunk when result is SUNK, otherwise null
+	 */
+	void recordShot(int row, int col, ShotResult result, Ship sunk);
+
+	/**
+	 * Sets roughly how long the strategy may think about one move.
+	 * Only strategies that search (ex: MonteCarloAI) use it; the rest
+	 * ignore it. Strategies start with no budget, so a game depends
+	 * only on its seed. Only the GUI sets a budget, since a move cut
+	 * short depends on how fast the machine is.
+	 *
+	 * @param millis time per move in milliseconds, or 0 for no limit
+	 */
+	default void setTimeBudget(long millis) {
+	}
+
+	/**
+	 * Forgets every shot so the strategy can be used for a new game
+	 * on a board of the same size and fleet. Implementations reuse
+	 * their arrays rather than allocating new ones.
+	 */
+	void reset();
+
+	/**
+	 * Creates a strategy by name. Same as Strategies.create(), which
+	 * lists the names and lets new strategies be registered.
+	 *
+	 * @param name the strategy name
+	 * @param config board size and fleet of the game
+	 * @param rand random generator used by the strategy
+	 * @return a new strategy for one game
+	 * @throws IllegalArgumentException for an unknown name, or a board
+	 *         too large for packed squares
+	 */
+	static TargetingStrategy create(String name, GameConfig config, RandomGenerator rand) {
+		return Strategies.create(name, config, rand);
+	}
+}
@@ -0,0 +1,343 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tournament compares targeting strategies on the same set of seeded
+ * layouts.
+ *
+ * Layout i is the fleet placed with the LAYOUT stream of game seed
+ * GameSeeds.gameSeed(seed, i), so every strategy shoots at exactly the same boards, and
+ * running again with the same seed gives the same layouts. Each
+ * strategy plays each layout alone and the number of shots it needs to
+ * sink the whole fleet is its shots-to-win for that layout. The
+ * strategy's generator is the AI stream of the same game seed (one
+ * stream per strategy), so results are repeatable and don't depend on
+ * the thread count.
+ *
+ * Layouts are split across a fixed thread pool. Each worker has its own
+ * board, generators and strategy instances (reset between layouts)
+ * and writes into its own part of the results, so nothing is shared.
+ *
+ * For each strategy the report gives the mean and the 50th, 90th and
+ * 99th percentiles, each with a 95% confidence interval, and the
+ * paired difference from the first strategy (same layouts, so the
+ * comparison is much tighter than comparing two means).
+ *
+ * Usage: java battleship.Tournament [layouts] [threads] [boardSize] [seed]
+ *                                   [strategies] [fleet]
+ *
+ * strategies is a comma separated list of names known to Strategies
+ * (default: every registered strategy).
+ */
+public class Tournament {
+
+	// z value for a 95% confidence interval
+	private static final double Z95 = 1.96;
+
+	// Percentiles in the report
+	private static final double[] PERCENTILES = { 0.5, 0.9, 0.99 };
+
+	// Board size and fleet
+	private GameConfig config;
+
+	// Strategy names, in report order
+	private String[] strategies;
+
+	// Seed the layouts are made from
+	private long seed;
+
+	// shots[s][i] = shots strategy s needed to sink layout i
+	private int[][] shots;
+
+	// shots sorted, for percentiles
+	private int[][] sorted;
+
+	// Time the tournament took
+	private long elapsedNanos;
+	private int threads;
+
+	// Results are made by run()
+	private Tournament(GameConfig config, String[] strategies, long seed, int layouts, int threads) {
+		this.config = config;
+		this.strategies = strategies;
+		this.seed = seed;
+		this.threads = threads;
+		this.shots = new int[strategies.length][layouts];
+	}
+
+	/**
+	 * Plays every strategy on every layout, in parallel.
+	 *
+	 * @param layouts number of layouts
+	 * @param threads number of worker threads
+	 * @param config board size and fleet
+	 * @param seed seed the layouts are made from
+	 * @param strategies strategy names (at least one)
+	 * @return the results
+	 */
+	public static Tournament run(int layouts, int threads, GameConfig config, long seed, String... strategies) {
+		if (strategies.length == 0) {
+			throw new IllegalArgumentException("A tournament needs at least one strategy");
+		}
+		if (layouts <= 0 || threads <= 0) {
+			throw new IllegalArgumentException("Layouts and threads must be positive");
+		}
+		// Fail now, not on a worker, if a name is unknown
+		for (String name : strategies) {
+			Strategies.create(name, config, new SplitMix(0));
+		}
+
+		Tournament tournament = new Tournament(config, strategies.clone(), seed, layouts, threads);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> parts = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				// Layouts from..to-1, spread evenly
+				int from = (int) ((long) layouts * t / threads);
+				int to = (int) ((long) layouts * (t + 1) / threads);
+				parts.add(pool.submit(() -> tournament.playLayouts(from, to)));
+			}
+			for (Future<?> part : parts) {
+				part.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Tournament interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Tournament failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		tournament.elapsedNanos = System.nanoTime() - start;
+
+		tournament.sorted = new int[strategies.length][];
+		for (int s = 0; s < strategies.length; s++) {
+			tournament.sorted[s] = tournament.shots[s].clone();
+			Arrays.sort(tournament.sorted[s]);
+		}
+		return tournament;
+	}
+
+	/**
+	 * Plays layouts from (inclusive) to to (exclusive) with every
+	 * strategy, on the calling thread.
+	 */
+	private void playLayouts(int from, int to) {
+		SplitMix layoutRand = new SplitMix(0);
+		SplitMix aiRand = new SplitMix(0);
+		TargetingStrategy[] ais = new TargetingStrategy[strategies.length];
+		for (int s = 0; s < strategies.length; s++) {
+			ais[s] = Strategies.create(strategies[s], config, aiRand);
+		}
+		Board board = config.createBoard();
+		config.getFleet().placeAll(board, layoutRand);
+
+		for (int i = from; i < to; i++) {
+			long gameSeed = GameSeeds.gameSeed(seed, i);
+			long layoutSeed = GameSeeds.streamSeed(gameSeed, GameSeeds.LAYOUT);
+			for (int s = 0; s < strategies.length; s++) {
+				// Same layout for every strategy
+				layoutRand.reseed(layoutSeed);
+				board.relayout(layoutRand);
+				aiRand.reseed(GameSeeds.streamSeed(gameSeed, GameSeeds.AI + s));
+				ais[s].reset();
+				shots[s][i] = playAlone(board, ais[s], strategies[s]);
+			}
+		}
+	}
+
+	// Lets one strategy shoot at a board until every ship is sunk
+	private static int playAlone(Board board, TargetingStrategy ai, String name) {
+		int count = 0;
+		while (!board.allShipsSunk()) {
+			int target = ai.nextShot();
+			int row = PackedCoord.row(target);
+			int col = PackedCoord.col(target);
+			ShotResult result = board.fire(row, col);
+			if (!result.isValid()) {
+				throw new IllegalStateException(name + " picked an illegal square (" + row + "," + col + "): " + result);
+			}
+			Ship sunk = result == ShotResult.SUNK ? board.getShips().get(board.getLastShipId()) : null;
+			ai.recordShot(row, col, result, sunk);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of layouts each strategy played.
+	 *
+	 * @return the layout count
+	 */
+	public int getLayouts() {
+		return shots[0].length;
+	}
+
+	/**
+	 * Returns the shots a strategy needed on one layout.
+	 *
+	 * @param strategy strategy index (order given to run)
+	 * @param layout layout number
+	 * @return shots to sink the fleet
+	 */
+	public int getShots(int strategy, int layout) {
+		return shots[strategy][layout];
+	}
+
+	/**
+	 * Returns a strategy's mean shots-to-win.
+	 *
+	 * @param strategy strategy index
+	 * @return the mean
+	 */
+	public double getMean(int strategy) {
+		return mean(shots[strategy]);
+	}
+
+	/**
+	 * Returns the half width of the 95% confidence interval of a
+	 * strategy's mean (the mean is +/- this).
+	 *
+	 * @param strategy strategy index
+	 * @return the half width
+	 */
+	public double getMeanHalfWidth(int strategy) {
+		return halfWidth(shots[strategy]);
+	}
+
+	/**
+	 * Returns a percentile of a strategy's shots-to-win.
+	 *
+	 * @param strategy strategy index
+	 * @param fraction percentile as a fraction (ex: 0.9)
+	 * @return the percentile
+	 */
+	public int getPercentile(int strategy, double fraction) {
+		return sorted[strategy][rank(fraction, 0)];
+	}
+
+	/**
+	 * Returns a 95% confidence interval for a percentile, using the
+	 * order statistics around its rank (no assumption about the shape
+	 * of the distribution).
+	 *
+	 * @param strategy strategy index
+	 * @param fraction percentile as a fraction (ex: 0.9)
+	 * @return the low and high ends of the interval
+	 */
+	public int[] getPercentileInterval(int strategy, double fraction) {
+		double spread = Z95 * Math.sqrt(getLayouts() * fraction * (1 - fraction));
+		return new int[] { sorted[strategy][rank(fraction, -spread)], sorted[strategy][rank(fraction, spread)] };
+	}
+
+	/**
+	 * Returns the mean of (strategy's shots - first strategy's shots)
+	 * over the same layouts. Negative means fewer shots than the first.
+	 *
+	 * @param strategy strategy index
+	 * @return the mean paired difference
+	 */
+	public double getMeanDifference(int strategy) {
+		return mean(differences(strategy));
+	}
+
+	/**
+	 * Returns the half width of the 95% confidence interval of
+	 * getMeanDifference.
+	 *
+	 * @param strategy strategy index
+	 * @return the half width
+	 */
+	public double getDifferenceHalfWidth(int strategy) {
+		return halfWidth(differences(strategy));
+	}
+
+	/**
+	 * Prints a table of the results.
+	 */
+	public void printReport() {
+		System.out.printf("Layouts:  %d per strategy, %dx%d board, fleet %s, seed %d%n", getLayouts(),
+				config.getSize(), config.getSize(), config.getFleet(), seed);
+		System.out.printf("Time:     %.2f s on %d threads%n", elapsedNanos / 1e9, threads);
+		System.out.println("Shots to win with 95% confidence intervals:");
+		System.out.printf("%-12s %-22s", "strategy", "mean");
+		for (double p : PERCENTILES) {
+			System.out.printf(" %-14s", "p" + Math.round(p * 100));
+		}
+		System.out.printf(" vs %s%n", strategies[0]);
+
+		for (int s = 0; s < strategies.length; s++) {
+			System.out.printf("%-12s %-22s", strategies[s],
+					String.format("%.2f +/- %.2f", getMean(s), getMeanHalfWidth(s)));
+			for (double p : PERCENTILES) {
+				int[] interval = getPercentileInterval(s, p);
+				System.out.printf(" %-14s", String.format("%d [%d, %d]", getPercentile(s, p), interval[0], interval[1]));
+			}
+			if (s > 0) {
+				System.out.printf(" %+.2f +/- %.2f", getMeanDifference(s), getDifferenceHalfWidth(s));
+			}
+			System.out.println();
+		}
+	}
+
+	// Index into a sorted array for a percentile, moved by offset ranks
+	private int rank(double fraction, double offset) {
+		int n = getLayouts();
+		long r = (long) Math.ceil(fraction * n + offset) - 1;
+		return (int) Math.max(0, Math.min(n - 1, r));
+	}
+
+	// Per layout difference from the first strategy
+	private int[] differences(int strategy) {
+		int[] d = new int[getLayouts()];
+		for (int i = 0; i < d.length; i++) {
+			d[i] = shots[strategy][i] - shots[0][i];
+		}
+		return d;
+	}
+
+	// Mean of some values
+	private static double mean(int[] values) {
+		long sum = 0;
+		for (int v : values) {
+			sum += v;
+		}
+		return (double) sum / values.length;
+	}
+
+	// Half width of the 95% confidence interval of the mean
+	private static double halfWidth(int[] values) {
+		if (values.length < 2) {
+			return Double.NaN;
+		}
+		double mean = mean(values);
+		double squares = 0;
+		for (int v : values) {
+			squares += (v - mean) * (v - mean);
+		}
+		double sd = Math.sqrt(squares / (values.length - 1));
+		return Z95 * sd / Math.sqrt(values.length);
+	}
+
+	/**
+	 * Runs a tournament from the command line.
+	 */
+	public static void main(String[] args) {
+		int layouts = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int size = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+		String[] names = args.length > 4 ? args[4].split(",") : Strategies.names().toArray(new String[0]);
+		Fleet fleet = args.length > 5 ? Fleet.parse(args[5]) : Fleet.standard();
+
+		run(layouts, threads, new GameConfig(size, fleet), seed, names).printReport();
+	}
+}
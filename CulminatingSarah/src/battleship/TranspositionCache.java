@@ -0,0 +1,193 @@
+package battleship;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TranspositionCache remembers AI evaluations by the Zobrist hash of
+ * the position they were made for, so a position that comes up again
+ * (later in a game, or in another game on another thread) doesn't have
+ * to be evaluated again.
+ *
+ * The cache has a fixed number of slots, set when it is made, so it
+ * never grows. Slots are grouped in pairs: a key can only live in the
+ * two slots picked by its low bits. When both are taken, a new entry
+ * replaces one that hasn't been read since the last time a put passed
+ * over it (a second chance, like the CLOCK page replacement policy),
+ * so entries that keep being used stay in.
+ *
+ * Any number of threads can use a cache at once without locking. Each
+ * slot holds an immutable entry (key and value together), so a reader
+ * never sees the key of one entry with the value of another. Two puts
+ * racing for the same slot can make one of them get dropped, which
+ * only costs a later recomputation. Values must not be changed once
+ * they are put in.
+ *
+ * @param <V> type of the cached evaluations
+ */
+public class TranspositionCache<V> {
+
+	// Slots per key
+	private static final int WAYS = 2;
+
+	// The slots; slots.get(i) is null while empty
+	private AtomicReferenceArray<Entry<V>> slots;
+
+	// Picks a key's pair of slots
+	private int pairMask;
+
+	// Counts for the report
+	private LongAdder hits = new LongAdder();
+	private LongAdder misses = new LongAdder();
+	private LongAdder evictions = new LongAdder();
+
+	/**
+	 * Constructs an empty cache.
+	 *
+	 * @param capacity most entries to hold (rounded up to a power of two, at least 2)
+	 */
+	public TranspositionCache(int capacity) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Cache capacity must be from 1 to 2^30: " + capacity);
+		}
+		int slotCount = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+		slots = new AtomicReferenceArray<>(slotCount);
+		pairMask = slotCount / WAYS - 1;
+	}
+
+	/**
+	 * Returns the evaluation stored for a position.
+	 *
+	 * @param key Zobrist hash of the position (plus anything else the
+	 *        evaluation depends on)
+	 * @return the evaluation, or null if it isn't in the cache
+	 */
+	public V get(long key) {
+		int first = firstSlot(key);
+		for (int i = first; i < first + WAYS; i++) {
+			Entry<V> entry = slots.get(i);
+			if (entry != null && entry.key == key) {
+				if (!entry.referenced) {
+					entry.referenced = true;
+				}
+				hits.increment();
+				return entry.value;
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Stores the evaluation of a position, replacing any older one for
+	 * the same key.
+	 *
+	 * @param key Zobrist hash of the position
+	 * @param value the evaluation (not changed afterwards)
+	 */
+	public void put(long key, V value) {
+		Entry<V> fresh = new Entry<>(key, value);
+		int first = firstSlot(key);
+
+		// Same key or an empty slot
+		for (int i = first; i < first + WAYS; i++) {
+			Entry<V> entry = slots.get(i);
+			boolean usable = entry == null || entry.key == key;
+			if (usable && slots.compareAndSet(i, entry, fresh)) {
+				return;
+			}
+		}
+
+		// Both slots taken: replace one not read lately, giving the others a second chance
+		for (int i = first; i < first + WAYS; i++) {
+			Entry<V> entry = slots.get(i);
+			if (entry == null || !entry.referenced) {
+				if (slots.compareAndSet(i, entry, fresh)) {
+					evictions.increment();
+				}
+				return;
+			}
+			entry.referenced = false;
+		}
+		slots.set(first, fresh);
+		evictions.increment();
+	}
+
+	/**
+	 * Empties the cache and its counts.
+	 */
+	public void clear() {
+		for (int i = 0; i < slots.length(); i++) {
+			slots.set(i, null);
+		}
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	/**
+	 * Returns the number of slots.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return slots.length();
+	}
+
+	/**
+	 * Returns how many lookups found an entry.
+	 *
+	 * @return the hit count
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns how many lookups found nothing.
+	 *
+	 * @return the miss count
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns how many entries were pushed out to make room.
+	 *
+	 * @return the eviction count
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns one report line: lookups, hit rate and evictions.
+	 *
+	 * @return the summary
+	 */
+	@Override
+	public String toString() {
+		long h = getHits();
+		long lookups = h + getMisses();
+		return String.format("%d lookups, %.1f%% hits, %d evictions, %d slots", lookups,
+				lookups == 0 ? 0.0 : 100.0 * h / lookups, getEvictions(), getCapacity());
+	}
+
+	// First of the key's pair of slots
+	private int firstSlot(long key) {
+		return ((int) key & pairMask) * WAYS;
+	}
+
+	// One cached evaluation; the referenced flag is the only thing that changes
+	private static final class Entry<V> {
+		final long key;
+		final V value;
+		volatile boolean referenced;
+
+		Entry(long key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package battleship;
+
+/**
+ * Zobrist gives the random keys used to hash what has been seen of a
+ * board: which squares are misses, which are hits and which belong to
+ * sunk ships.
+ *
+ * Every (square, state) pair has its own 64 bit key, and a board's
+ * hash is its size key XORed with the keys of all its shot squares.
+ * A shot only XORs a key in (and a sinking swaps the ship's hit keys
+ * for sunk keys), so the hash is kept up to date in O(1) per shot.
+ * Two boards with the same shot pattern have the same hash, however
+ * the shots were ordered, in any game and on any thread.
+ *
+ * The keys are worked out from the square and state with
+ * SplitMix.mix() instead of being stored in a table, so they are the
+ * same in every run and work for any board size. Board keeps the hash
+ * of the real board; an AI can keep the same hash from the results it
+ * is told, since it only uses what the shots revealed.
+ */
+public class Zobrist {
+
+	// Spreads out the inputs before they are mixed (the golden ratio, odd)
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+	// Keeps these keys apart from the other uses of SplitMix.mix
+	private static final long SALT = 0x5A6F627269737421L;
+
+	// State part of a key; a sunk square's key also holds the ship length
+	private static final int MISS = 0;
+	private static final int HIT = 1;
+	private static final int SUNK = 2;
+
+	// Only static methods
+	private Zobrist() {
+	}
+
+	/**
+	 * Returns the hash of a board of the given size with no shots.
+	 *
+	 * @param size the board size
+	 * @return the starting hash
+	 */
+	public static long empty(int size) {
+		return SplitMix.mix(SALT - size * GOLDEN);
+	}
+
+	/**
+	 * Returns the key of a miss.
+	 *
+	 * @param cell the square, row * size + col
+	 * @return the key
+	 */
+	public static long miss(long cell) {
+		return key(cell, MISS);
+	}
+
+	/**
+	 * Returns the key of a hit on a ship that is still afloat.
+	 *
+	 * @param cell the square, row * size + col
+	 * @return the key
+	 */
+	public static long hit(long cell) {
+		return key(cell, HIT);
+	}
+
+	/**
+	 * Returns the key of a square of a sunk ship. The ship's length is
+	 * part of the key, since sinking tells which ship it was.
+	 *
+	 * @param cell the square, row * size + col
+	 * @param length length of the sunk ship
+	 * @return the key
+	 */
+	public static long sunk(long cell, int length) {
+		return key(cell, SUNK + length);
+	}
+
+	// Key of one square and state (state fits in 8 bits, as lengths are at most Ship.MAX_LENGTH)
+	private static long key(long cell, int state) {
+		return SplitMix.mix(((cell << 8) | state) * GOLDEN + SALT);
+	}
+}
@@ -0,0 +1,60 @@
+package battleship.benchmarks;
+
+import battleship.Board;
+import battleship.Ship;
+
+/**
+ * Layout remembers where every ship on a board was placed so the board
+ * can be put back to that exact state before each benchmark call.
+ *
+ * restore() reuses the same Board and Ship objects, so setting a board
+ * up again costs no allocation and no random placement.
+ */
+public class Layout {
+
+	// The ships and where each one starts
+	private Ship[] ships;
+	private int[] rows;
+	private int[] cols;
+	private boolean[] horizontal;
+
+	/**
+	 * Records the ships currently on a board.
+	 *
+	 * @param board a board with its ships placed
+	 */
+	public Layout(Board board) {
+		int count = board.getShips().size();
+		ships = board.getShips().toArray(new Ship[count]);
+		rows = new int[count];
+		cols = new int[count];
+		horizontal = new boolean[count];
+		for (int i = 0; i < count; i++) {
+			rows[i] = ships[i].getRow();
+			cols[i] = ships[i].getCol();
+			horizontal[i] = ships[i].isHorizontal();
+		}
+	}
+
+	/**
+	 * Clears a board and places the recorded ships back, unhit.
+	 *
+	 * @param board the board to restore
+	 */
+	public void restore(Board board) {
+		board.reset();
+		for (int i = 0; i < ships.length; i++) {
+			ships[i].reset();
+			board.placeShipAt(ships[i], rows[i], cols[i], horizontal[i]);
+		}
+	}
+
+	/**
+	 * Returns the recorded ships in placement order.
+	 *
+	 * @return the ships
+	 */
+	public Ship[] getShips() {
+		return ships;
+	}
+}
@@ -0,0 +1,102 @@
+package battleship.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import battleship.Board;
+import battleship.Fleet;
+import battleship.GameConfig;
+import battleship.GameSeeds;
+import battleship.HeadlessGame;
+import battleship.PackedCoord;
+import battleship.ShotResult;
+import battleship.Ship;
+import battleship.TargetingStrategy;
+
+/**
+ * Measures the computer's move selection: the nextShot() call that
+ * GUIDriver.computerTurn() runs on the AI thread.
+ *
+ * - nextShot: one move picked on a board a third of the way through a
+ *   game (no shot is fired, so the state stays the same; hunt's target
+ *   queue is used up by the first few calls, after which it measures
+ *   its random hunting shot)
+ * - playGame: a whole headless game between two copies of the
+ *   strategy, which includes every move and every recordShot()
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MoveBenchmark {
+
+	// How far into the game nextShot is measured
+	private static final double SHOT_SHARE = 1.0 / 3;
+
+	@Param({"8", "16", "64"})
+	public int size;
+
+	@Param({"hunt", "density"})
+	public String strategy;
+
+	// Strategy in the middle of a game
+	private TargetingStrategy ai;
+
+	// Game replayed by playGame
+	private HeadlessGame game;
+
+	// Number of games played so far; each game gets the next seed
+	private long games;
+
+	/**
+	 * Plays the first third of a game against a standard fleet, and
+	 * sets up the headless game.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random rand = new Random(42);
+		GameConfig config = new GameConfig(size, Fleet.standard());
+		Board board = config.createBoard();
+		config.getFleet().placeAll(board, rand);
+		ai = TargetingStrategy.create(strategy, config, rand);
+
+		int shots = (int) (size * size * SHOT_SHARE);
+		for (int i = 0; i < shots && !board.allShipsSunk(); i++) {
+			int target = ai.nextShot();
+			int row = PackedCoord.row(target);
+			int col = PackedCoord.col(target);
+			ShotResult result = board.fire(row, col);
+			Ship sunk = result == ShotResult.SUNK ? board.getShips().get(board.getLastShipId()) : null;
+			ai.recordShot(row, col, result, sunk);
+		}
+
+		game = new HeadlessGame(config, GameSeeds.gameSeed(7, 0), strategy, strategy);
+	}
+
+	@Benchmark
+	public int nextShot() {
+		return ai.nextShot();
+	}
+
+	@Benchmark
+	public int playGame() {
+		game.restart(GameSeeds.gameSeed(7, ++games));
+		game.play();
+		return game.getShotsToWin();
+	}
+}
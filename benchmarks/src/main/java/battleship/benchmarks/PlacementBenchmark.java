@@ -0,0 +1,135 @@
+package battleship.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import battleship.Board;
+import battleship.Fleet;
+import battleship.Ship;
+
+/**
+ * Measures ship placement on an empty board and on a crowded one.
+ *
+ * - placeFleetEmpty: the standard fleet on an empty board, which is
+ *   what every new game does (score is per ship)
+ * - placeShipCrowded / placeShipUniform: one carrier on a board where
+ *   other ships already cover about 60% of the squares, through the
+ *   random tries and through the full list of legal positions
+ *
+ * The board is cleared or restored before every call, outside the
+ * timed part.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PlacementBenchmark {
+
+	// Ships in the standard fleet
+	private static final int FLEET_SHIPS = 5;
+
+	// Share of the squares covered on the crowded board
+	private static final double CROWDED_COVER = 0.6;
+
+	@Param({"8", "16", "64", "256"})
+	public int size;
+
+	// Random for the placements being measured
+	private Random rand = new Random(42);
+
+	// Empty board and the ships to place on it
+	private Board empty;
+	private Ship[] fleet;
+
+	// Crowded board without its carrier, and the carrier
+	private Board crowded;
+	private Layout crowdedLayout;
+	private Ship carrier;
+
+	/**
+	 * Builds the fleet and the crowded layout.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Fleet standard = Fleet.standard();
+		empty = new Board(size);
+		fleet = new Ship[FLEET_SHIPS];
+		for (int i = 0; i < FLEET_SHIPS; i++) {
+			fleet[i] = new Ship(standard.getName(i), standard.getLengths()[i]);
+		}
+
+		// Place the carrier first so it always has a spot, fill the board
+		// with destroyers, then record the layout without the carrier
+		Random fill = new Random(7);
+		Board full = new Board(size);
+		carrier = new Ship("Carrier", 5);
+		full.placeShipRandom(carrier, fill);
+		long covered = carrier.getLength();
+		while (covered < CROWDED_COVER * size * size) {
+			Ship destroyer = new Ship("Destroyer", 2);
+			try {
+				full.placeShipRandom(destroyer, fill);
+			} catch (IllegalStateException e) {
+				break;
+			}
+			covered += destroyer.getLength();
+		}
+		crowded = new Board(size);
+		for (int i = 1; i < full.getShips().size(); i++) {
+			Ship ship = full.getShips().get(i);
+			crowded.placeShipAt(new Ship(ship.getName(), ship.getLength()), ship.getRow(), ship.getCol(),
+					ship.isHorizontal());
+		}
+		crowdedLayout = new Layout(crowded);
+	}
+
+	/**
+	 * Clears the empty board and puts the crowded one back before every call.
+	 */
+	@Setup(Level.Invocation)
+	public void restore() {
+		empty.reset();
+		for (Ship ship : fleet) {
+			ship.reset();
+		}
+		crowdedLayout.restore(crowded);
+		carrier.reset();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(FLEET_SHIPS)
+	public Board placeFleetEmpty() {
+		for (Ship ship : fleet) {
+			empty.placeShipRandom(ship, rand);
+		}
+		return empty;
+	}
+
+	@Benchmark
+	public Board placeShipCrowded() {
+		crowded.placeShipRandom(carrier, rand);
+		return crowded;
+	}
+
+	@Benchmark
+	public Board placeShipUniform() {
+		crowded.placeShipUniform(carrier, rand);
+		return crowded;
+	}
+}
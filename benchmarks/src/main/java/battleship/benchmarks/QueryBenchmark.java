@@ -0,0 +1,89 @@
+package battleship.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import battleship.Board;
+import battleship.Fleet;
+import battleship.PackedCoord;
+import battleship.Ship;
+
+/**
+ * Measures the read-only board queries the game makes every turn:
+ * allShipsSunk() and getShipAt(), on a board half way through a game.
+ *
+ * getShipAt() is asked about a fixed cycle of random squares so the
+ * answers mix water and ships.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QueryBenchmark {
+
+	// Number of squares in the getShipAt cycle (a power of two)
+	private static final int SQUARES = 1024;
+
+	@Param({"8", "16", "64", "256"})
+	public int size;
+
+	private Board board;
+
+	// Packed squares to look up, and the next one to use
+	private int[] squares = new int[SQUARES];
+	private int next;
+
+	/**
+	 * Places the fleet, shoots half the ship squares and some water, and
+	 * picks the squares to look up. Every ship square is in the cycle
+	 * at least once when the cycle is big enough.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random rand = new Random(42);
+		board = new Board(size);
+		Fleet.standard().placeAll(board, rand);
+
+		int i = 0;
+		for (Ship ship : board.getShips()) {
+			for (int s = 0; s < ship.getLength(); s++) {
+				if (s % 2 == 0) {
+					board.fire(ship.getSegmentRow(s), ship.getSegmentCol(s));
+				}
+				squares[i++] = PackedCoord.pack(ship.getSegmentRow(s), ship.getSegmentCol(s));
+			}
+		}
+		for (int shot = 0; shot < size * size / 4; shot++) {
+			board.fire(rand.nextInt(size), rand.nextInt(size));
+		}
+		for (; i < SQUARES; i++) {
+			squares[i] = PackedCoord.pack(rand.nextInt(size), rand.nextInt(size));
+		}
+	}
+
+	@Benchmark
+	public boolean allShipsSunk() {
+		return board.allShipsSunk();
+	}
+
+	@Benchmark
+	public Ship getShipAt() {
+		int target = squares[next++ & (SQUARES - 1)];
+		return board.getShipAt(PackedCoord.row(target), PackedCoord.col(target));
+	}
+}
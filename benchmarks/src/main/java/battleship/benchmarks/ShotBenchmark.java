@@ -0,0 +1,196 @@
+package battleship.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import battleship.Board;
+import battleship.Fleet;
+import battleship.PackedCoord;
+import battleship.Ship;
+
+/**
+ * Measures one shot at a board: a miss, a hit that doesn't sink, and
+ * the hit that sinks a ship, through both shootAt() (the String API
+ * used by Main) and fire().
+ *
+ * Each call fires a fixed batch of shots at squares picked in setup,
+ * and the board is restored to its starting layout before every call
+ * (outside the timed part), so every shot lands on a square that has
+ * not been tried. Scores are per shot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ShotBenchmark {
+
+	// Shots per call: 32 misses fit on every size, and the standard
+	// fleet has 12 squares that hit without sinking and 5 that sink
+	private static final int MISSES = 32;
+	private static final int HITS = 12;
+	private static final int SINKS = 5;
+
+	@Param({"8", "16", "64", "256"})
+	public int size;
+
+	private Board board;
+	private Layout layout;
+
+	// Packed squares to shoot at
+	private int[] water = new int[MISSES];
+	private int[] hits = new int[HITS];
+	private int[] sinks = new int[SINKS];
+
+	/**
+	 * Places the standard fleet and picks the squares to shoot at.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random rand = new Random(42);
+		board = new Board(size);
+		Fleet.standard().placeAll(board, rand);
+		layout = new Layout(board);
+
+		// Distinct water squares
+		for (int i = 0; i < MISSES; i++) {
+			int row, col;
+			do {
+				row = rand.nextInt(size);
+				col = rand.nextInt(size);
+			} while (board.getShipAt(row, col) != null || contains(water, i, PackedCoord.pack(row, col)));
+			water[i] = PackedCoord.pack(row, col);
+		}
+
+		// Every segment but the last of each ship hits, the last one sinks
+		int h = 0;
+		for (int s = 0; s < layout.getShips().length; s++) {
+			Ship ship = layout.getShips()[s];
+			for (int i = 0; i < ship.getLength() - 1; i++) {
+				hits[h++] = PackedCoord.pack(ship.getSegmentRow(i), ship.getSegmentCol(i));
+			}
+			int last = ship.getLength() - 1;
+			sinks[s] = PackedCoord.pack(ship.getSegmentRow(last), ship.getSegmentCol(last));
+		}
+	}
+
+	/**
+	 * The board with every ship back in place and unhit, restored
+	 * before every call.
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+
+		private Board board;
+
+		/**
+		 * Restores the layout.
+		 *
+		 * @param shots the shared layout and target squares
+		 */
+		@Setup(Level.Invocation)
+		public void restore(ShotBenchmark shots) {
+			board = shots.board;
+			shots.layout.restore(board);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(MISSES)
+	public void shootAtMiss(Fresh fresh, Blackhole bh) {
+		for (int target : water) {
+			bh.consume(fresh.board.shootAt(PackedCoord.row(target), PackedCoord.col(target)));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HITS)
+	public void shootAtHit(Fresh fresh, Blackhole bh) {
+		for (int target : hits) {
+			bh.consume(fresh.board.shootAt(PackedCoord.row(target), PackedCoord.col(target)));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(MISSES)
+	public void fireMiss(Fresh fresh, Blackhole bh) {
+		for (int target : water) {
+			bh.consume(fresh.board.fire(PackedCoord.row(target), PackedCoord.col(target)));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HITS)
+	public void fireHit(Fresh fresh, Blackhole bh) {
+		for (int target : hits) {
+			bh.consume(fresh.board.fire(PackedCoord.row(target), PackedCoord.col(target)));
+		}
+	}
+
+	/**
+	 * Sinking shots need every other segment of the ship hit first,
+	 * so this state restores the board with all but one segment of each
+	 * ship already hit.
+	 */
+	@State(Scope.Thread)
+	public static class Damaged {
+
+		private Board board;
+
+		/**
+		 * Restores the layout and fires the non-sinking hits.
+		 *
+		 * @param shots the shared layout and target squares
+		 */
+		@Setup(Level.Invocation)
+		public void restore(ShotBenchmark shots) {
+			board = shots.board;
+			shots.layout.restore(board);
+			for (int target : shots.hits) {
+				board.fire(PackedCoord.row(target), PackedCoord.col(target));
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SINKS)
+	public void shootAtSink(Damaged damaged, Blackhole bh) {
+		for (int target : sinks) {
+			bh.consume(damaged.board.shootAt(PackedCoord.row(target), PackedCoord.col(target)));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SINKS)
+	public void fireSink(Damaged damaged, Blackhole bh) {
+		for (int target : sinks) {
+			bh.consume(damaged.board.fire(PackedCoord.row(target), PackedCoord.col(target)));
+		}
+	}
+
+	// Checks the first count entries of an array for a value
+	private static boolean contains(int[] values, int count, int value) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+}